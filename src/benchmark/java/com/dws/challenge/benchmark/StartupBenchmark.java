@@ -0,0 +1,248 @@
+package com.dws.challenge.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application in a separate JVM and records the time until the first transfer succeeds,
+ * then the live heap and resident set size once a warm-up load has been applied.
+ * <p>
+ * Configured through system properties set by the {@code startupBenchmark} Gradle task. Results are
+ * written to {@code startup-benchmark.properties} in the report directory, and the run fails when one
+ * of the optional budgets is exceeded, or when a budgeted metric could not be measured.
+ */
+public class StartupBenchmark {
+
+  private static final long STARTUP_TIMEOUT_MS = 120_000;
+
+  private static final long POLL_INTERVAL_MS = 5;
+
+  private final HttpClient client = HttpClient.newBuilder()
+          .connectTimeout(Duration.ofMillis(500))
+          .build();
+
+  private final String baseUrl;
+
+  private int accountSequence;
+
+  private StartupBenchmark(int port) {
+    this.baseUrl = "http://localhost:" + port + "/v1/accounts";
+  }
+
+  public static void main(String[] args) throws Exception {
+    String java = System.getProperty("benchmark.java");
+    String classpath = System.getProperty("benchmark.classpath");
+    String jvmArgs = System.getProperty("benchmark.jvmArgs", "");
+    Path reportDir = Paths.get(System.getProperty("benchmark.reportDir", "build/reports/startup-benchmark"));
+    int warmupTransfers = Integer.getInteger("benchmark.warmupTransfers", 2000);
+    int port = freePort();
+
+    Files.createDirectories(reportDir);
+    List<String> command = new ArrayList<>();
+    command.add(java);
+    if (!jvmArgs.isBlank()) {
+      command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+    }
+    command.addAll(Arrays.asList("-cp", classpath, "com.dws.challenge.ChallengeApplication",
+            "--spring.profiles.active=slim", "--server.port=" + port));
+
+    StartupBenchmark benchmark = new StartupBenchmark(port);
+    List<String> violations = new ArrayList<>();
+    long startNanos = System.nanoTime();
+    Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(reportDir.resolve("application.log").toFile())
+            .start();
+    try {
+      long firstTransferMs = benchmark.awaitFirstTransfer(process, startNanos);
+      benchmark.warmUp(warmupTransfers);
+      long heapBytes = liveHeapBytes(java, process.pid());
+      long rssBytes = residentSetBytes(process.pid());
+
+      Properties results = new Properties();
+      results.setProperty("timeToFirstTransferMs", String.valueOf(firstTransferMs));
+      results.setProperty("warmupTransfers", String.valueOf(warmupTransfers));
+      results.setProperty("liveHeapBytes", String.valueOf(heapBytes));
+      results.setProperty("rssBytes", String.valueOf(rssBytes));
+      results.setProperty("jvmArgs", jvmArgs);
+      try (Writer writer = Files.newBufferedWriter(reportDir.resolve("startup-benchmark.properties"))) {
+        results.store(writer, "Startup benchmark of the slim profile");
+      }
+      System.out.printf("Time to first successful transfer: %d ms%n", firstTransferMs);
+      printMb("Steady-state live heap", heapBytes);
+      printMb("Steady-state RSS", rssBytes);
+
+      checkBudget(violations, "benchmark.startupBudgetMs", "time to first transfer (ms)", firstTransferMs);
+      checkBudget(violations, "benchmark.heapBudgetMb", "live heap (MB)", toBudgetMb(heapBytes));
+      checkBudget(violations, "benchmark.rssBudgetMb", "RSS (MB)", toBudgetMb(rssBytes));
+    } finally {
+      process.destroy();
+      if (!process.waitFor(10, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+    if (!violations.isEmpty()) {
+      violations.forEach(System.err::println);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Retries the creation of two accounts and a transfer between them until the transfer is accepted.
+   *
+   * @return the elapsed milliseconds since the application process was launched
+   */
+  private long awaitFirstTransfer(Process process, long startNanos) throws InterruptedException {
+    long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(STARTUP_TIMEOUT_MS);
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("Application exited with code " + process.exitValue()
+                + " before the first transfer, see application.log");
+      }
+      try {
+        if (transfer()) {
+          return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+      } catch (IOException e) {
+        // The server is not listening yet
+      }
+      Thread.sleep(POLL_INTERVAL_MS);
+    }
+    throw new IllegalStateException("No successful transfer within " + STARTUP_TIMEOUT_MS + " ms");
+  }
+
+  private void warmUp(int transfers) throws IOException, InterruptedException {
+    for (int i = 0; i < transfers; i++) {
+      if (!transfer()) {
+        throw new IllegalStateException("Warm-up transfer " + i + " was not accepted");
+      }
+    }
+  }
+
+  /**
+   * Creates a funded source account, an empty destination account and transfers between them.
+   *
+   * @return true if every call succeeded
+   */
+  private boolean transfer() throws IOException, InterruptedException {
+    String source = "bench-" + (++accountSequence);
+    String destination = "bench-" + (++accountSequence);
+    return send("POST", baseUrl, "{\"accountId\":\"" + source + "\",\"balance\":100}") == 201
+            && send("POST", baseUrl, "{\"accountId\":\"" + destination + "\",\"balance\":0}") == 201
+            && send("PUT", baseUrl + "/amountTransfer", "{\"sourceAccountId\":\"" + source
+            + "\",\"destinationAccountId\":\"" + destination + "\",\"transferAmount\":10}") == 202;
+  }
+
+  private int send(String method, String url, String body) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofString(body))
+            .timeout(Duration.ofSeconds(10))
+            .build();
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+
+  /**
+   * Measures the live heap with a class histogram, which forces a full GC first.
+   *
+   * @return the live heap in bytes, or -1 if it could not be measured
+   */
+  private static long liveHeapBytes(String java, long pid) throws IOException, InterruptedException {
+    File jcmd = new File(new File(java).getParentFile(), "jcmd");
+    Process process = new ProcessBuilder(jcmd.getPath(), String.valueOf(pid), "GC.class_histogram")
+            .redirectErrorStream(true)
+            .start();
+    String total = null;
+    try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.trim().startsWith("Total")) {
+          total = line.trim();
+        }
+      }
+    }
+    process.waitFor();
+    if (total == null) {
+      return -1;
+    }
+    // "Total <instances> <bytes>"
+    String[] columns = total.split("\\s+");
+    return Long.parseLong(columns[columns.length - 1]);
+  }
+
+  /**
+   * Reads the resident set size from procfs.
+   *
+   * @return the RSS in bytes, or -1 when procfs is not available
+   */
+  private static long residentSetBytes(long pid) throws IOException {
+    Path status = Paths.get("/proc", String.valueOf(pid), "status");
+    if (!Files.exists(status)) {
+      return -1;
+    }
+    for (String line : Files.readAllLines(status)) {
+      if (line.startsWith("VmRSS:")) {
+        // "VmRSS:    123456 kB"
+        return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Records a violation when the value exceeds the budget, or when a budget is set for a value that
+   * could not be measured (negative).
+   */
+  private static void checkBudget(List<String> violations, String property, String label, long value) {
+    String budget = System.getProperty(property);
+    if (budget == null) {
+      return;
+    }
+    if (value < 0) {
+      violations.add("Startup regression: " + label + " could not be measured, budget is " + budget);
+    } else if (value > Long.parseLong(budget)) {
+      violations.add("Startup regression: " + label + " is " + value + ", budget is " + budget);
+    }
+  }
+
+  private static long toBudgetMb(long bytes) {
+    return bytes < 0 ? -1 : (long) Math.ceil(toMb(bytes));
+  }
+
+  private static void printMb(String label, long bytes) {
+    if (bytes < 0) {
+      System.err.printf("%s: not measured%n", label);
+    } else {
+      System.out.printf("%s: %.1f MB%n", label, toMb(bytes));
+    }
+  }
+
+  private static double toMb(long bytes) {
+    return bytes / (1024.0 * 1024.0);
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.dws.challenge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Serves a first transfer over HTTP before the cdsArchive Gradle task exits the application, so the
+ * AppCDS archive also holds the classes of the first request: controllers, MVC handler adapters,
+ * Jackson and validation. Those are loaded lazily under the slim profile, after startup.
+ */
+@Component
+@ConditionalOnProperty(name = "challenge.exit-after-startup", havingValue = "true")
+@Slf4j
+public class CdsTrainingRunner implements ApplicationRunner {
+
+	private final Environment environment;
+
+	@Autowired
+	public CdsTrainingRunner(Environment environment) {
+		this.environment = environment;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws IOException, InterruptedException {
+		String baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port") + "/v1/accounts";
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+		send(client, "POST", baseUrl, "{\"accountId\":\"cds-training-1\",\"balance\":100}");
+		send(client, "POST", baseUrl, "{\"accountId\":\"cds-training-2\",\"balance\":0}");
+		send(client, "PUT", baseUrl + "/amountTransfer",
+				"{\"sourceAccountId\":\"cds-training-1\",\"destinationAccountId\":\"cds-training-2\",\"transferAmount\":10}");
+		send(client, "GET", baseUrl + "/cds-training-2", null);
+		// A rejected payload loads the validation error path too
+		send(client, "POST", baseUrl, "{\"accountId\":\"\",\"balance\":-1}");
+	}
+
+	private static void send(HttpClient client, String method, String url, String body)
+			throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+				.header("Content-Type", "application/json")
+				.method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody())
+				.timeout(Duration.ofSeconds(30))
+				.build();
+		int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+		log.info("CDS training request {} {} returned {}", method, url, status);
+	}
+}
@@ -2,12 +2,20 @@ package com.dws.challenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ChallengeApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(ChallengeApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(ChallengeApplication.class, args);
+		// Used by the cdsArchive Gradle task to record the classes loaded during startup and, through
+		// CdsTrainingRunner, the first transfer
+		if (context.getEnvironment().getProperty("challenge.exit-after-startup", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -21,6 +21,12 @@ public class Account {
   @NotNull
   private AtomicReference<BigDecimal> balance = new AtomicReference<BigDecimal>(BigDecimal.ZERO);
 
+  /**
+   * Lifecycle state, replaced together with the balance so both are always read consistently.
+   */
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private final AccountStatus status;
+
   public void setBalance(BigDecimal newBalance) {
     if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
       throw new IllegalArgumentException("Initial balance must be positive.");
@@ -31,15 +37,21 @@ public class Account {
   public Account(String accountId) {
     this.accountId = accountId;
     this.balance.set(BigDecimal.ZERO);
+    this.status = AccountStatus.ACTIVE;
   }
 
   @JsonCreator
   public Account(@JsonProperty("accountId") String accountId,
     @JsonProperty("balance") BigDecimal balance) {
+    this(accountId, balance, AccountStatus.ACTIVE);
+  }
+
+  public Account(String accountId, BigDecimal balance, AccountStatus status) {
     if (balance.compareTo(BigDecimal.ZERO) < 0) {
       throw new IllegalArgumentException("Initial balance must be positive.");
     }
     this.accountId = accountId;
     this.balance.set(balance);
+    this.status = status;
   }
 }
@@ -0,0 +1,54 @@
+package com.dws.challenge.domain;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * An immutable record of a single balance mutation, as published on the account change stream.
+ */
+@Data
+@Builder
+public class AccountChangeEvent {
+
+  /**
+   * The kind of mutation that produced the event.
+   */
+  public enum Type {
+    CREATED,
+    WITHDRAWAL,
+    DEPOSIT,
+    REFUND,
+    STATUS_CHANGE
+  }
+
+  /**
+   * Monotonic sequence number assigned when the mutation is applied. Sequences are claimed in
+   * order but may have gaps: an event whose writer was lapped by the ring buffer is dropped.
+   */
+  private final long sequence;
+
+  private final Type type;
+
+  private final String accountId;
+
+  /**
+   * The amount moved by the mutation (the initial balance for {@link Type#CREATED}, zero for
+   * {@link Type#STATUS_CHANGE}).
+   */
+  private final BigDecimal amount;
+
+  /**
+   * The account balance right after the mutation was applied.
+   */
+  private final BigDecimal balance;
+
+  /**
+   * The account status after the mutation.
+   */
+  private final AccountStatus status;
+
+  private final Instant timestamp;
+}
@@ -0,0 +1,22 @@
+package com.dws.challenge.domain;
+
+/**
+ * Lifecycle state of an account. Only active accounts accept withdrawals and deposits.
+ */
+public enum AccountStatus {
+  ACTIVE,
+  FROZEN,
+  CLOSED;
+
+  /**
+   * Checks whether an account in this state may be moved to the given state.
+   * Active and frozen accounts may be swapped or closed, a closed account is final. Closing also
+   * requires a zero balance, which the repository checks atomically with the change.
+   *
+   * @param target the requested state
+   * @return true if the transition is allowed
+   */
+  public boolean canTransitionTo(AccountStatus target) {
+    return this != CLOSED || target == CLOSED;
+  }
+}
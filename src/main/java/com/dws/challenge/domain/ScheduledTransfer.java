@@ -0,0 +1,42 @@
+package com.dws.challenge.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A transfer to execute at a given time, optionally repeated at a fixed interval.
+ */
+@Data
+@Builder(toBuilder = true)
+@Jacksonized
+public class ScheduledTransfer {
+
+  private final String scheduleId;
+
+  private final String sourceAccountId;
+
+  private final String destinationAccountId;
+
+  private final BigDecimal transferAmount;
+
+  /**
+   * The time of the next execution.
+   */
+  private final Instant nextExecutionAt;
+
+  /**
+   * The delay between two executions, null for a one-time transfer.
+   */
+  private final Duration interval;
+
+  @JsonIgnore
+  public boolean isRecurring() {
+    return interval != null;
+  }
+}
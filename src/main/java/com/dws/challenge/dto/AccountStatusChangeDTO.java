@@ -0,0 +1,19 @@
+package com.dws.challenge.dto;
+
+import com.dws.challenge.domain.AccountStatus;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+public class AccountStatusChangeDTO {
+  @NotNull
+  private final AccountStatus status;
+
+  @JsonCreator
+  public AccountStatusChangeDTO(@JsonProperty("status") AccountStatus status) {
+    this.status = status;
+  }
+}
@@ -0,0 +1,31 @@
+package com.dws.challenge.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+@Data
+@Builder
+@Jacksonized
+public class ScheduledTransferDTO {
+  @NotNull
+  @NotEmpty
+  private final String sourceAccountId;
+  @NotNull
+  @NotEmpty
+  private final String destinationAccountId;
+  @NotNull
+  private final BigDecimal transferAmount;
+  @NotNull
+  private final Instant executeAt;
+  /**
+   * ISO-8601 delay between executions (e.g. "P1D"), absent for a one-time transfer.
+   */
+  private final Duration interval;
+}
@@ -0,0 +1,20 @@
+package com.dws.challenge.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ScheduledTransferMetricsDTO {
+  private final long pendingSchedules;
+  private final long dueBacklog;
+  private final long ticks;
+  private final long executedTotal;
+  private final long failedTotal;
+  private final long lastTickExecuted;
+  private final long lastTickFailed;
+  private final long maxTickExecuted;
+  private final long lastTickMaxLagMs;
+  private final long maxLagMs;
+  private final double averageLagMs;
+}
@@ -0,0 +1,8 @@
+package com.dws.challenge.exception;
+
+public class AccountStatusTransitionException extends RuntimeException {
+
+  public AccountStatusTransitionException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.dws.challenge.exception;
+
+public class StreamCapacityExceededException extends RuntimeException {
+
+  public StreamCapacityExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,125 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.AccountChangeEvent;
+import com.dws.challenge.domain.AccountStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer holding the most recent balance mutations in sequence order.
+ * <p>
+ * Writers only claim a sequence number and store the event in its slot, so appending never waits
+ * on readers. A slot is only replaced by a newer sequence, so a writer lapped while paused drops its
+ * own event rather than overwriting a newer one, leaving a gap in the sequence. Readers keep their
+ * own cursor and detect when they have been lapped by comparing it with {@link #getOldestSequence()}.
+ */
+@Component
+public class AccountChangeLog {
+
+    private final AtomicReferenceArray<AccountChangeEvent> ring;
+
+    private final int mask;
+
+    private final AtomicLong nextSequence = new AtomicLong(1);
+
+    /**
+     * Constructs the change log.
+     *
+     * @param capacity the number of recent events to retain, rounded up to a power of two
+     */
+    public AccountChangeLog(@Value("${accounts.changes.buffer-capacity:4096}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change log capacity must be positive.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records a mutation and assigns it the next sequence number.
+     * <p>
+     * Must be called while the mutated account is still exclusively held, so that events of the
+     * same account are sequenced in the order their balances were applied.
+     *
+     * @param type      the kind of mutation
+     * @param accountId the ID of the mutated account
+     * @param amount    the amount moved by the mutation
+     * @param balance   the balance after the mutation
+     * @param status    the account status after the mutation
+     * @return the published event
+     */
+    public AccountChangeEvent append(AccountChangeEvent.Type type, String accountId,
+                                     BigDecimal amount, BigDecimal balance, AccountStatus status) {
+        long sequence = nextSequence.getAndIncrement();
+        AccountChangeEvent event = AccountChangeEvent.builder()
+                .sequence(sequence)
+                .type(type)
+                .accountId(accountId)
+                .amount(amount)
+                .balance(balance)
+                .status(status)
+                .timestamp(Instant.now())
+                .build();
+        int slot = slot(sequence);
+        AccountChangeEvent current;
+        do {
+            current = ring.get(slot);
+            if (current != null && current.getSequence() > sequence) {
+                // This writer was paused for a full lap, never overwrite the newer event
+                return event;
+            }
+        } while (!ring.compareAndSet(slot, current, event));
+        return event;
+    }
+
+    /**
+     * Reads consecutive events starting at the given sequence.
+     * <p>
+     * Stops at the first sequence not yet published or already overwritten, so the returned list
+     * never contains gaps.
+     *
+     * @param fromSequence the first sequence to read (inclusive)
+     * @param maxEvents    the maximum number of events to return
+     * @return the events read, possibly empty
+     */
+    public List<AccountChangeEvent> read(long fromSequence, int maxEvents) {
+        List<AccountChangeEvent> events = new ArrayList<>(Math.min(maxEvents, ring.length()));
+        for (long sequence = fromSequence; events.size() < maxEvents; sequence++) {
+            AccountChangeEvent event = ring.get(slot(sequence));
+            if (event == null || event.getSequence() != sequence) {
+                break;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * @return the sequence of the latest claimed event, or 0 if nothing was recorded yet
+     */
+    public long getLastSequence() {
+        return nextSequence.get() - 1;
+    }
+
+    /**
+     * @return the oldest sequence that may still be read from the buffer
+     */
+    public long getOldestSequence() {
+        return Math.max(1, nextSequence.get() - ring.length());
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
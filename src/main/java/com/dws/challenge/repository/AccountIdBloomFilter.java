@@ -0,0 +1,154 @@
+package com.dws.challenge.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrently updatable Bloom filter over account IDs, used to answer "not found" for unknown IDs
+ * without touching the account store.
+ * <p>
+ * A negative answer is definitive, a positive one may be a false positive at the configured rate.
+ * Bits are never cleared, so removed accounts only add false positives.
+ */
+@Component
+public class AccountIdBloomFilter {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    /**
+     * Constructs a filter sized for the expected number of accounts.
+     *
+     * @param expectedAccounts  the number of accounts the filter is sized for
+     * @param falsePositiveRate the target false positive rate once that many accounts were added
+     */
+    public AccountIdBloomFilter(@Value("${accounts.bloom-filter.expected-accounts:1000000}") long expectedAccounts,
+                                @Value("${accounts.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedAccounts <= 0) {
+            throw new IllegalArgumentException("Expected accounts must be positive.");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1.");
+        }
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedAccounts * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedAccounts * ln2));
+    }
+
+    private AccountIdBloomFilter(AtomicLongArray words, int hashCount) {
+        this.words = words;
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Adds an account ID to the filter.
+     *
+     * @param accountId the account ID
+     */
+    public void add(String accountId) {
+        long hash1 = hash(accountId, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(accountId, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.accumulateAndGet(word, mask, (current, bits) -> current | bits);
+            }
+        }
+    }
+
+    /**
+     * Checks whether an account ID may have been added.
+     *
+     * @param accountId the account ID
+     * @return false if the ID was definitely never added, true otherwise
+     */
+    public boolean mightContain(String accountId) {
+        if (accountId == null) {
+            return false;
+        }
+        long hash1 = hash(accountId, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(accountId, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the filter so it can be saved next to a persisted account store.
+     *
+     * @param out the stream to write to, left open
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(hashCount);
+        data.writeInt(words.length());
+        for (int i = 0; i < words.length(); i++) {
+            data.writeLong(words.get(i));
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a filter previously written with {@link #writeTo(OutputStream)}.
+     *
+     * @param in the stream to read from, left open
+     * @return the restored filter
+     * @throws IOException if reading fails or the data is not a saved filter
+     */
+    public static AccountIdBloomFilter readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported account id filter format " + version);
+        }
+        int hashCount = data.readInt();
+        int wordCount = data.readInt();
+        if (hashCount <= 0 || wordCount <= 0) {
+            throw new IOException("Corrupted account id filter");
+        }
+        AtomicLongArray words = new AtomicLongArray(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            words.set(i, data.readLong());
+        }
+        return new AccountIdBloomFilter(words, hashCount);
+    }
+
+    /**
+     * Seeded 64-bit FNV-1a over the characters of the ID, with a final avalanche mix.
+     */
+    static long hash(String accountId, long seed) {
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < accountId.length(); i++) {
+            hash ^= accountId.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
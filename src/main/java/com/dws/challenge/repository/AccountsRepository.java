@@ -1,6 +1,8 @@
 package com.dws.challenge.repository;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountStatus;
+import com.dws.challenge.exception.AccountStatusTransitionException;
 import com.dws.challenge.exception.DuplicateAccountIdException;
 
 import java.math.BigDecimal;
@@ -16,4 +18,10 @@ public interface AccountsRepository {
   boolean withdrawMoney(String accountId, BigDecimal amount);
 
   boolean depositMoney(String accountId, BigDecimal amount);
+
+  boolean refundMoney(String accountId, BigDecimal amount);
+
+  Account updateStatus(String accountId, AccountStatus status) throws AccountStatusTransitionException;
+
+  int removeClosedAccounts();
 }
@@ -1,7 +1,12 @@
 package com.dws.challenge.repository;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountChangeEvent;
+import com.dws.challenge.domain.AccountStatus;
+import com.dws.challenge.exception.AccountStatusTransitionException;
 import com.dws.challenge.exception.DuplicateAccountIdException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
@@ -9,15 +14,55 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * In-memory account store. Never lazily initialized, so the first request of an instance started with
+ * {@code spring.main.lazy-initialization} does not pay for building the store and its change log.
+ */
 @Repository
+@Lazy(false)
 public class AccountsRepositoryInMemory implements AccountsRepository {
 
     private final Map<String, Account> accounts = new ConcurrentHashMap<>();
 
+    /**
+     * The change stream every balance mutation is published to.
+     */
+    private final AccountChangeLog changeLog;
+
+    /**
+     * Filter over every account ID ever created, short-circuiting lookups of unknown IDs.
+     */
+    private final AccountIdBloomFilter accountIds;
+
+    /**
+     * IDs of closed accounts already reclaimed, kept as compact fingerprints so a closed ID can never
+     * be created again.
+     */
+    private final ClosedAccountIds closedAccountIds = new ClosedAccountIds();
+
+    @Autowired
+    public AccountsRepositoryInMemory(AccountChangeLog changeLog, AccountIdBloomFilter accountIds) {
+        this.changeLog = changeLog;
+        this.accountIds = accountIds;
+    }
+
     @Override
     public void createAccount(Account account) throws DuplicateAccountIdException {
-        Account previousAccount = accounts.putIfAbsent(account.getAccountId(), account);
-        if (previousAccount != null) {
+        AtomicBoolean created = new AtomicBoolean(false);
+        // Use computeIfAbsent so the creation event is sequenced before any mutation of the new account
+        accounts.computeIfAbsent(account.getAccountId(), key -> {
+            // Checked after the map miss: the sweeper records the ID before removing the account
+            if (closedAccountIds.contains(key)) {
+                throw new DuplicateAccountIdException("Account id " + key + " was closed and cannot be reused!");
+            }
+            created.set(true);
+            // Register the ID before the account becomes visible, so the filter never hides it
+            accountIds.add(key);
+            BigDecimal balance = account.getBalance().get();
+            changeLog.append(AccountChangeEvent.Type.CREATED, key, balance, balance, account.getStatus());
+            return account;
+        });
+        if (!created.get()) {
             throw new DuplicateAccountIdException(
                     "Account id " + account.getAccountId() + " already exists!");
         }
@@ -25,12 +70,20 @@ public class AccountsRepositoryInMemory implements AccountsRepository {
 
     @Override
     public Account getAccount(String accountId) {
+        if (!accountIds.mightContain(accountId)) {
+            return null;
+        }
         return accounts.get(accountId);
     }
 
+    /**
+     * Removes every account. The ID filter is left untouched: stale IDs only cost false positives,
+     * while resetting it could hide an account created concurrently.
+     */
     @Override
     public void clearAccounts() {
         accounts.clear();
+        closedAccountIds.clear();
     }
 
     /**
@@ -42,15 +95,20 @@ public class AccountsRepositoryInMemory implements AccountsRepository {
      */
     @Override
     public boolean withdrawMoney(String accountId, BigDecimal amount) {
+        if (!accountIds.mightContain(accountId)) {
+            return false;
+        }
         AtomicBoolean transactionDone = new AtomicBoolean(false);
         // Use computeIfPresent to update the account balance if the account exists
         accounts.computeIfPresent(accountId, (key, accountTarget) -> {
-            if (isPositive(amount) && haveSufficientFunds(amount, accountTarget)) {
-                // If the amount is positive and there are sufficient funds, perform the withdrawal
+            if (isActive(accountTarget) && isPositive(amount) && haveSufficientFunds(amount, accountTarget)) {
+                // If the account is active, the amount is positive and there are sufficient funds, perform the withdrawal
                 transactionDone.set(true);
-                return new Account(accountTarget.getAccountId(), accountTarget.getBalance().get().subtract(amount));
+                BigDecimal newBalance = accountTarget.getBalance().get().subtract(amount);
+                changeLog.append(AccountChangeEvent.Type.WITHDRAWAL, key, amount, newBalance, accountTarget.getStatus());
+                return new Account(accountTarget.getAccountId(), newBalance, accountTarget.getStatus());
             } else {
-                // If the amount is negative or there are insufficient funds, do not perform the withdrawal
+                // If the account is not active, the amount is negative or there are insufficient funds, do not perform the withdrawal
                 return accountTarget;
             }
         });
@@ -67,30 +125,130 @@ public class AccountsRepositoryInMemory implements AccountsRepository {
      */
     @Override
     public boolean depositMoney(String accountId, BigDecimal amount) {
+        if (!accountIds.mightContain(accountId)) {
+            return false;
+        }
         AtomicBoolean transactionDone = new AtomicBoolean(false);
         // Use computeIfPresent to update the account balance if the account exists
         accounts.computeIfPresent(accountId, (key, accountTarget) -> {
-            if (isPositive(amount)) {
-                // If the amount is positive, perform the deposit
+            if (isActive(accountTarget) && isPositive(amount)) {
+                // If the account is active and the amount is positive, perform the deposit
                 transactionDone.set(true);
-                return new Account(accountTarget.getAccountId(), accountTarget.getBalance().get().add(amount));
+                BigDecimal newBalance = accountTarget.getBalance().get().add(amount);
+                changeLog.append(AccountChangeEvent.Type.DEPOSIT, key, amount, newBalance, accountTarget.getStatus());
+                return new Account(accountTarget.getAccountId(), newBalance, accountTarget.getStatus());
             } else {
-                // If the amount is negative, do not perform the deposit
+                // If the account is not active or the amount is negative, do not perform the deposit
                 return accountTarget;
             }
         });
         return transactionDone.get();
     }
 
+    /**
+     * Returns money to an account whatever its status, e.g. the source of a transfer whose deposit
+     * was rejected. Published as a {@link AccountChangeEvent.Type#REFUND} event.
+     *
+     * @param accountId the ID of the account to refund
+     * @param amount    the amount of money to return
+     * @return true if the refund was successful, false if the account does not exist
+     */
+    @Override
+    public boolean refundMoney(String accountId, BigDecimal amount) {
+        if (!accountIds.mightContain(accountId)) {
+            return false;
+        }
+        AtomicBoolean transactionDone = new AtomicBoolean(false);
+        accounts.computeIfPresent(accountId, (key, accountTarget) -> {
+            if (isPositive(amount)) {
+                transactionDone.set(true);
+                BigDecimal newBalance = accountTarget.getBalance().get().add(amount);
+                changeLog.append(AccountChangeEvent.Type.REFUND, key, amount, newBalance, accountTarget.getStatus());
+                return new Account(accountTarget.getAccountId(), newBalance, accountTarget.getStatus());
+            }
+            return accountTarget;
+        });
+        return transactionDone.get();
+    }
+
+    /**
+     * Changes the lifecycle status of the account with the given account ID.
+     * <p>
+     * The status is swapped together with the balance inside the same per-account update that
+     * withdrawals and deposits use, so a transaction never sees a stale status. An account can only
+     * be closed once its balance is zero.
+     *
+     * @param accountId the ID of the account to update
+     * @param status    the new status
+     * @return the updated account, or null if the account does not exist
+     * @throws AccountStatusTransitionException if the account cannot move to the new status
+     */
+    @Override
+    public Account updateStatus(String accountId, AccountStatus status) throws AccountStatusTransitionException {
+        if (!accountIds.mightContain(accountId)) {
+            return null;
+        }
+        return accounts.computeIfPresent(accountId, (key, accountTarget) -> {
+            if (!accountTarget.getStatus().canTransitionTo(status)) {
+                throw new AccountStatusTransitionException(
+                        "Account id " + key + " cannot change from " + accountTarget.getStatus() + " to " + status);
+            }
+            if (status == AccountStatus.CLOSED && accountTarget.getStatus() != AccountStatus.CLOSED
+                    && accountTarget.getBalance().get().signum() != 0) {
+                throw new AccountStatusTransitionException(
+                        "Account id " + key + " cannot be closed with a balance of " + accountTarget.getBalance().get());
+            }
+            if (accountTarget.getStatus() == status) {
+                return accountTarget;
+            }
+            BigDecimal balance = accountTarget.getBalance().get();
+            changeLog.append(AccountChangeEvent.Type.STATUS_CHANGE, key, BigDecimal.ZERO, balance, status);
+            return new Account(key, balance, status);
+        });
+    }
+
+    /**
+     * Removes closed accounts from memory. Each account is removed only if it is still the closed
+     * instance that was inspected, so concurrent updates are never lost. A closed account holding a
+     * refund is kept until its balance is reconciled, and removed IDs stay reserved.
+     *
+     * @return the number of accounts removed
+     */
+    @Override
+    public int removeClosedAccounts() {
+        int removed = 0;
+        for (Map.Entry<String, Account> entry : accounts.entrySet()) {
+            Account account = entry.getValue();
+            if (account.getStatus() == AccountStatus.CLOSED && account.getBalance().get().signum() == 0) {
+                closedAccountIds.add(entry.getKey());
+                if (accounts.remove(entry.getKey(), account)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Checks if the account accepts withdrawals and deposits.
+     *
+     * @param accountTarget the account on which the transaction is performed
+     * @return true if the account is active, false otherwise
+     */
+    private static boolean isActive(Account accountTarget) {
+        return accountTarget.getStatus() == AccountStatus.ACTIVE;
+    }
+
     /**
      * Checks if the account has sufficient funds to perform a transaction with the specified amount.
+     * The whole balance may be withdrawn, so an account can be emptied and then closed.
      *
      * @param amount        the amount of money involved in the transaction
      * @param accountTarget the account on which the transaction is performed
      * @return true if the account has sufficient funds, false otherwise
      */
     private static boolean haveSufficientFunds(BigDecimal amount, Account accountTarget) {
-        return accountTarget.getBalance().get().compareTo(amount) > 0;
+        return accountTarget.getBalance().get().compareTo(amount) >= 0;
     }
 
     /**
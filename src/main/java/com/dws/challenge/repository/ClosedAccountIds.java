@@ -0,0 +1,93 @@
+package com.dws.challenge.repository;
+
+import java.util.Arrays;
+
+/**
+ * Set of reclaimed account IDs, kept so a closed ID can never be created again.
+ * <p>
+ * IDs are stored as 64-bit fingerprints in an open addressing table of primitive longs, about 16
+ * bytes per ID at most, instead of the ID string and a map node: the memory the sweeper frees stays
+ * freed. Two IDs sharing a fingerprint cannot be told apart, so a never used ID is reported as closed
+ * with a probability of about n / 2^64, n being the number of closed IDs. All methods are thread-safe.
+ */
+public class ClosedAccountIds {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Fingerprints, 0 marking an empty slot. The capacity is a power of two, at most half full.
+     */
+    private long[] slots = new long[INITIAL_CAPACITY];
+
+    private int size;
+
+    /**
+     * Reserves an account ID.
+     *
+     * @param accountId the ID of the reclaimed account
+     */
+    public synchronized void add(String accountId) {
+        long fingerprint = fingerprint(accountId);
+        int index = indexOf(slots, fingerprint);
+        if (slots[index] == fingerprint) {
+            return;
+        }
+        slots[index] = fingerprint;
+        if (++size * 2 > slots.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Checks whether an account ID was reserved.
+     *
+     * @param accountId the account ID
+     * @return true if the ID belonged to a reclaimed account
+     */
+    public synchronized boolean contains(String accountId) {
+        long fingerprint = fingerprint(accountId);
+        return slots[indexOf(slots, fingerprint)] == fingerprint;
+    }
+
+    /**
+     * @return the number of reserved IDs
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Forgets every reserved ID.
+     */
+    public synchronized void clear() {
+        slots = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    private void grow() {
+        long[] grown = new long[slots.length * 2];
+        for (long fingerprint : slots) {
+            if (fingerprint != 0) {
+                grown[indexOf(grown, fingerprint)] = fingerprint;
+            }
+        }
+        slots = grown;
+    }
+
+    /**
+     * Linear probing: the slot holding the fingerprint, or the empty slot where it belongs.
+     */
+    private static int indexOf(long[] table, long fingerprint) {
+        int mask = table.length - 1;
+        int index = (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        while (table[index] != 0 && table[index] != fingerprint) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static long fingerprint(String accountId) {
+        long fingerprint = AccountIdBloomFilter.hash(accountId, 0x632BE59BD9B4E019L);
+        return fingerprint != 0 ? fingerprint : 1;
+    }
+}
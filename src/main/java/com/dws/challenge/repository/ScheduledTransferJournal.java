@@ -0,0 +1,345 @@
+package com.dws.challenge.repository;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only local journal of the scheduled transfers, so pending schedules survive a restart.
+ * <p>
+ * Each line is a JSON record, either {@code PUT} with the full schedule or {@code REMOVE} with its ID.
+ * Replaying the file yields the live schedules. The journal keeps its own copy of the live schedules,
+ * updated by the same records it appends, so a compaction always matches what was written before it.
+ * <p>
+ * Once dead records outnumber the live ones, any append triggers a compaction on a background thread:
+ * the live schedules are copied under the lock, written to a temporary file without it, then the
+ * records appended meanwhile are added and the file is swapped. Appends only wait for the copy and
+ * the swap, never for the full rewrite.
+ */
+@Repository
+@Slf4j
+public class ScheduledTransferJournal implements Closeable {
+
+    private static final String OPERATION = "op";
+
+    private static final String PUT = "PUT";
+
+    private static final String REMOVE = "REMOVE";
+
+    private static final String TRANSFER = "transfer";
+
+    private static final String SCHEDULE_ID = "scheduleId";
+
+    private final ObjectMapper objectMapper;
+
+    private final Path path;
+
+    private final int compactionThreshold;
+
+    private final Map<String, ScheduledTransfer> live = new LinkedHashMap<>();
+
+    private final ExecutorService compactor;
+
+    private FileOutputStream output;
+
+    private BufferedWriter writer;
+
+    private long records;
+
+    private boolean compactionScheduled;
+
+    /**
+     * Records appended while a compaction is writing its snapshot, null when no compaction runs.
+     */
+    private List<String> compactionTail;
+
+    /**
+     * Constructs the journal.
+     *
+     * @param objectMapper        the mapper used to serialize the records
+     * @param path                the journal file
+     * @param compactionThreshold the minimum number of records before the journal is compacted
+     */
+    @Autowired
+    public ScheduledTransferJournal(ObjectMapper objectMapper,
+                                    @Value("${accounts.scheduler.journal-path:data/scheduled-transfers.jsonl}") String path,
+                                    @Value("${accounts.scheduler.journal-compaction-threshold:10000}") int compactionThreshold) {
+        this.objectMapper = objectMapper;
+        this.path = Paths.get(path);
+        this.compactionThreshold = compactionThreshold;
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-transfers-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Replays the journal and rewrites it with the live schedules only. Must be called once before
+     * any other method.
+     *
+     * @return the live schedules by ID
+     */
+    public synchronized Map<String, ScheduledTransfer> load() {
+        live.clear();
+        try {
+            if (Files.exists(path)) {
+                List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+                for (int i = 0; i < lines.size(); i++) {
+                    replay(lines.get(i), i + 1);
+                }
+            }
+            rewrite();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load scheduled transfers from " + path, e);
+        }
+        log.info("Loaded {} scheduled transfers from {}", live.size(), path);
+        return new LinkedHashMap<>(live);
+    }
+
+    /**
+     * Records a new or updated schedule.
+     *
+     * @param scheduledTransfer the schedule
+     */
+    public synchronized void put(ScheduledTransfer scheduledTransfer) {
+        append(putRecord(scheduledTransfer));
+        live.put(scheduledTransfer.getScheduleId(), scheduledTransfer);
+    }
+
+    /**
+     * Records an updated schedule unless it was removed meanwhile, so a late update never brings a
+     * cancelled schedule back.
+     *
+     * @param scheduledTransfer the schedule
+     * @return true if the update was recorded, false if the schedule is not live
+     */
+    public synchronized boolean putIfLive(ScheduledTransfer scheduledTransfer) {
+        if (!live.containsKey(scheduledTransfer.getScheduleId())) {
+            return false;
+        }
+        put(scheduledTransfer);
+        return true;
+    }
+
+    /**
+     * Records the removal of a schedule.
+     *
+     * @param scheduleId the schedule ID
+     */
+    public synchronized void remove(String scheduleId) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put(OPERATION, REMOVE);
+        record.put(SCHEDULE_ID, scheduleId);
+        append(record);
+        live.remove(scheduleId);
+    }
+
+    /**
+     * Forces the appended records to disk.
+     */
+    public synchronized void flush() {
+        try {
+            writer.flush();
+            output.getChannel().force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write scheduled transfers to " + path, e);
+        }
+    }
+
+    /**
+     * Waits for a running compaction, then flushes and closes the journal.
+     */
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closeWriter();
+        }
+    }
+
+    private void replay(String line, int lineNumber) {
+        if (line.isBlank()) {
+            return;
+        }
+        try {
+            JsonNode record = objectMapper.readTree(line);
+            if (PUT.equals(record.path(OPERATION).asText())) {
+                ScheduledTransfer scheduledTransfer = objectMapper.treeToValue(record.get(TRANSFER), ScheduledTransfer.class);
+                live.put(scheduledTransfer.getScheduleId(), scheduledTransfer);
+            } else if (REMOVE.equals(record.path(OPERATION).asText())) {
+                live.remove(record.path(SCHEDULE_ID).asText());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Typically the last line, torn by a crash while it was written
+            log.warn("Skipping unreadable scheduled transfer record at {}:{}", path, lineNumber);
+        }
+    }
+
+    /**
+     * Writes the live schedules to a temporary file, then atomically swaps it with the journal.
+     * Only used by {@link #load()}, before the journal is shared.
+     */
+    private void rewrite() throws IOException {
+        closeWriter();
+        List<String> lines = new ArrayList<>(live.size());
+        for (ScheduledTransfer scheduledTransfer : live.values()) {
+            lines.add(objectMapper.writeValueAsString(putRecord(scheduledTransfer)));
+        }
+        Path compacted = writeTemporary(lines);
+        swap(compacted);
+        records = live.size();
+    }
+
+    /**
+     * Runs on the compactor thread. Holds the lock only to copy the live schedules and to swap files.
+     */
+    private void compact() {
+        List<ScheduledTransfer> snapshot;
+        synchronized (this) {
+            if (writer == null) {
+                compactionScheduled = false;
+                return;
+            }
+            snapshot = new ArrayList<>(live.values());
+            compactionTail = new ArrayList<>();
+        }
+        Path compacted = null;
+        try {
+            List<String> lines = new ArrayList<>(snapshot.size());
+            for (ScheduledTransfer scheduledTransfer : snapshot) {
+                lines.add(objectMapper.writeValueAsString(putRecord(scheduledTransfer)));
+            }
+            compacted = writeTemporary(lines);
+            synchronized (this) {
+                if (writer != null) {
+                    writeLines(compacted, compactionTail, true);
+                    closeWriter();
+                    swap(compacted);
+                    compacted = null;
+                    records = snapshot.size() + compactionTail.size();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Cannot compact scheduled transfers in {}", path, e);
+        } finally {
+            synchronized (this) {
+                compactionTail = null;
+                compactionScheduled = false;
+            }
+            deleteQuietly(compacted);
+        }
+    }
+
+    private Path writeTemporary(List<String> lines) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path compacted = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        writeLines(compacted, lines, false);
+        return compacted;
+    }
+
+    private static void writeLines(Path file, List<String> lines, boolean append) throws IOException {
+        try (FileOutputStream fileOutput = new FileOutputStream(file.toFile(), append);
+             BufferedWriter fileWriter = new BufferedWriter(new OutputStreamWriter(fileOutput, StandardCharsets.UTF_8))) {
+            for (String line : lines) {
+                fileWriter.write(line);
+                fileWriter.newLine();
+            }
+            fileWriter.flush();
+            fileOutput.getChannel().force(false);
+        }
+    }
+
+    /**
+     * Replaces the journal with the compacted file and reopens it for appending.
+     */
+    private void swap(Path compacted) throws IOException {
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        output = new FileOutputStream(path.toFile(), true);
+        writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            flush();
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private ObjectNode putRecord(ScheduledTransfer scheduledTransfer) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put(OPERATION, PUT);
+        record.set(TRANSFER, objectMapper.valueToTree(scheduledTransfer));
+        return record;
+    }
+
+    private void append(ObjectNode record) {
+        try {
+            String line = objectMapper.writeValueAsString(record);
+            writer.write(line);
+            writer.newLine();
+            records++;
+            if (compactionTail != null) {
+                compactionTail.add(line);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write scheduled transfers to " + path, e);
+        }
+        scheduleCompactionIfNeeded();
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        if (compactionScheduled || records < compactionThreshold || records < 2L * live.size()) {
+            return;
+        }
+        try {
+            compactor.execute(this::compact);
+            compactionScheduled = true;
+        } catch (RejectedExecutionException e) {
+            // The journal is closing
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete temporary journal file {}", file);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.dws.challenge.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel holding tasks until their deadline.
+ * <p>
+ * Level 0 has {@code wheelSize} buckets of {@code tickMs} each, every next level has buckets as wide
+ * as the whole previous level and is only created once a deadline needs it. Tasks live in intrusive
+ * doubly linked bucket lists, so scheduling and cancelling are O(1) whatever the number of pending
+ * tasks; tasks of a higher level are cascaded down when the wheel reaches their bucket.
+ * <p>
+ * A task never expires before its deadline and at most one tick after it, provided
+ * {@link #advance(long)} is called every tick. All methods are thread-safe.
+ *
+ * @param <T> the type of the scheduled tasks
+ */
+public class TimingWheel<T> {
+
+  /**
+   * Handle of a scheduled task, used to cancel it.
+   */
+  public static final class Timeout<T> {
+
+    private final T task;
+
+    private final long deadlineMs;
+
+    private Timeout<T> prev;
+
+    private Timeout<T> next;
+
+    private Timeout(T task, long deadlineMs) {
+      this.task = task;
+      this.deadlineMs = deadlineMs;
+    }
+
+    public T getTask() {
+      return task;
+    }
+
+    public long getDeadlineMs() {
+      return deadlineMs;
+    }
+
+    private boolean isLinked() {
+      return next != null;
+    }
+
+    private void unlink() {
+      prev.next = next;
+      next.prev = prev;
+      prev = null;
+      next = null;
+    }
+  }
+
+  /**
+   * One level of the hierarchy. Each bucket is the sentinel of a circular list.
+   */
+  private static final class Level<T> {
+
+    private final long tickMs;
+
+    private final long spanMs;
+
+    private final Timeout<T>[] buckets;
+
+    @SuppressWarnings("unchecked")
+    private Level(long tickMs, int wheelSize) {
+      this.tickMs = tickMs;
+      this.spanMs = Math.multiplyExact(tickMs, wheelSize);
+      this.buckets = (Timeout<T>[]) new Timeout[wheelSize];
+      for (int i = 0; i < wheelSize; i++) {
+        Timeout<T> sentinel = new Timeout<>(null, 0);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        buckets[i] = sentinel;
+      }
+    }
+
+    private Timeout<T> bucket(long timeMs) {
+      return buckets[(int) Math.floorMod(Math.floorDiv(timeMs, tickMs), (long) buckets.length)];
+    }
+
+    private void link(long timeMs, Timeout<T> timeout) {
+      Timeout<T> sentinel = bucket(timeMs);
+      timeout.prev = sentinel.prev;
+      timeout.next = sentinel;
+      sentinel.prev.next = timeout;
+      sentinel.prev = timeout;
+    }
+
+    private void drain(long timeMs, List<Timeout<T>> target) {
+      Timeout<T> sentinel = bucket(timeMs);
+      while (sentinel.next != sentinel) {
+        Timeout<T> timeout = sentinel.next;
+        timeout.unlink();
+        target.add(timeout);
+      }
+    }
+  }
+
+  private final int wheelSize;
+
+  private final List<Level<T>> levels = new ArrayList<>();
+
+  /**
+   * Start of the level 0 slot that has not expired yet, always a multiple of the tick.
+   */
+  private long currentTimeMs;
+
+  private int size;
+
+  /**
+   * Constructs a timing wheel.
+   *
+   * @param tickMs      the resolution of the wheel
+   * @param wheelSize   the number of buckets per level
+   * @param startTimeMs the current time
+   */
+  public TimingWheel(long tickMs, int wheelSize, long startTimeMs) {
+    if (tickMs <= 0 || wheelSize < 2) {
+      throw new IllegalArgumentException("Tick must be positive and wheel size at least 2.");
+    }
+    this.wheelSize = wheelSize;
+    this.levels.add(new Level<>(tickMs, wheelSize));
+    this.currentTimeMs = startTimeMs - Math.floorMod(startTimeMs, tickMs);
+  }
+
+  /**
+   * Schedules a task. A deadline already passed expires on the next tick.
+   *
+   * @param task       the task
+   * @param deadlineMs the time at which the task becomes due
+   * @return the handle to cancel the task
+   */
+  public synchronized Timeout<T> schedule(T task, long deadlineMs) {
+    Timeout<T> timeout = new Timeout<>(task, deadlineMs);
+    place(timeout);
+    size++;
+    return timeout;
+  }
+
+  /**
+   * Cancels a scheduled task.
+   *
+   * @param timeout the handle returned by {@link #schedule(Object, long)}
+   * @return true if the task was pending, false if it already expired or was cancelled
+   */
+  public synchronized boolean cancel(Timeout<T> timeout) {
+    if (!timeout.isLinked()) {
+      return false;
+    }
+    timeout.unlink();
+    size--;
+    return true;
+  }
+
+  /**
+   * Moves the wheel forward and collects every task whose deadline has passed.
+   *
+   * @param nowMs the current time
+   * @return the expired tasks, in deadline order across ticks
+   */
+  public synchronized List<Timeout<T>> advance(long nowMs) {
+    List<Timeout<T>> expired = new ArrayList<>();
+    List<Timeout<T>> cascaded = new ArrayList<>();
+    Level<T> first = levels.get(0);
+    while (nowMs >= currentTimeMs + first.tickMs) {
+      first.drain(currentTimeMs, expired);
+      currentTimeMs += first.tickMs;
+      // Redistribute the higher level buckets that now start, top down
+      for (int i = levels.size() - 1; i >= 1; i--) {
+        Level<T> level = levels.get(i);
+        if (currentTimeMs % level.tickMs == 0) {
+          level.drain(currentTimeMs, cascaded);
+          cascaded.forEach(this::place);
+          cascaded.clear();
+        }
+      }
+    }
+    size -= expired.size();
+    return expired;
+  }
+
+  /**
+   * @return the number of pending tasks
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  private void place(Timeout<T> timeout) {
+    for (int i = 0; ; i++) {
+      if (i == levels.size()) {
+        levels.add(new Level<>(levels.get(i - 1).spanMs, wheelSize));
+      }
+      Level<T> level = levels.get(i);
+      long levelTimeMs = currentTimeMs - Math.floorMod(currentTimeMs, level.tickMs);
+      if (timeout.deadlineMs < levelTimeMs + level.spanMs) {
+        level.link(Math.max(timeout.deadlineMs, currentTimeMs), timeout);
+        return;
+      }
+    }
+  }
+}
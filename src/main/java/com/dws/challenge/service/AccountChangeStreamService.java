@@ -0,0 +1,290 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.AccountChangeEvent;
+import com.dws.challenge.exception.StreamCapacityExceededException;
+import com.dws.challenge.repository.AccountChangeLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams account change events to long-lived Server-Sent Events subscribers.
+ * <p>
+ * Each subscriber reads the {@link AccountChangeLog} at its own pace from a private cursor, a
+ * bounded batch per write, so a slow consumer only falls behind and never stalls the write path.
+ * A subscriber lapped by the ring buffer receives a {@code gap} event and resumes from the oldest
+ * retained sequence.
+ * <p>
+ * The dispatcher threads only poll and never touch a connection with a write in progress: writes run
+ * on a bounded pool, one at a time per subscriber. A subscriber whose write does not finish within
+ * the send timeout is dropped: it is no longer polled, and its writer completes the emitter once the
+ * blocked write returns, which the container's socket write timeout
+ * ({@code server.tomcat.connection-timeout}) guarantees. New subscribers are rejected while every
+ * writer thread is busy. Idle streams get a heartbeat comment, so connections closed by the client
+ * are detected by the failing write.
+ */
+@Service
+@Slf4j
+public class AccountChangeStreamService {
+
+  /**
+   * The SSE event name used for account changes.
+   */
+  public static final String CHANGE_EVENT = "account-change";
+
+  /**
+   * The SSE event name used to report events lost because the subscriber was lapped.
+   */
+  public static final String GAP_EVENT = "gap";
+
+  private final AccountChangeLog changeLog;
+
+  private final ScheduledExecutorService dispatcher;
+
+  private final ThreadPoolExecutor writers;
+
+  private final long pollIntervalMs;
+
+  private final int batchSize;
+
+  private final long emitterTimeoutMs;
+
+  private final long sendTimeoutMs;
+
+  private final long heartbeatIntervalMs;
+
+  /**
+   * Constructs an instance of the AccountChangeStreamService class.
+   *
+   * @param changeLog           the buffer of recent balance mutations
+   * @param dispatcherThreads   the number of threads polling the subscribers
+   * @param writerThreads       the maximum number of writes in progress across all subscribers
+   * @param pollIntervalMs      the delay between two polls of the same subscriber
+   * @param batchSize           the maximum number of events sent to a subscriber per write
+   * @param emitterTimeoutMs    the SSE connection timeout, 0 meaning no timeout
+   * @param sendTimeoutMs       the time a write may take before the subscriber is dropped
+   * @param heartbeatIntervalMs the idle time after which a heartbeat comment is sent
+   */
+  @Autowired
+  public AccountChangeStreamService(AccountChangeLog changeLog,
+                                    @Value("${accounts.changes.dispatcher-threads:2}") int dispatcherThreads,
+                                    @Value("${accounts.changes.writer-threads:64}") int writerThreads,
+                                    @Value("${accounts.changes.poll-interval-ms:100}") long pollIntervalMs,
+                                    @Value("${accounts.changes.batch-size:256}") int batchSize,
+                                    @Value("${accounts.changes.emitter-timeout-ms:0}") long emitterTimeoutMs,
+                                    @Value("${accounts.changes.send-timeout-ms:5000}") long sendTimeoutMs,
+                                    @Value("${accounts.changes.heartbeat-interval-ms:15000}") long heartbeatIntervalMs) {
+    this.changeLog = changeLog;
+    this.pollIntervalMs = pollIntervalMs;
+    this.batchSize = batchSize;
+    this.emitterTimeoutMs = emitterTimeoutMs;
+    this.sendTimeoutMs = sendTimeoutMs;
+    this.heartbeatIntervalMs = heartbeatIntervalMs;
+    this.dispatcher = Executors.newScheduledThreadPool(dispatcherThreads, daemonThreads("account-changes-"));
+    // No queue: a write is either started now or retried on the next poll
+    this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), daemonThreads("account-changes-writer-"));
+    this.writers.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Opens a new subscription.
+   *
+   * @param fromSequence the first sequence to deliver, or null to only receive new events
+   * @return the emitter bound to the HTTP response
+   * @throws StreamCapacityExceededException if every writer thread is busy, e.g. pinned by stalled
+   *                                         connections
+   */
+  public SseEmitter subscribe(Long fromSequence) throws StreamCapacityExceededException {
+    if (writers.getActiveCount() >= writers.getMaximumPoolSize()) {
+      throw new StreamCapacityExceededException(
+              "All " + writers.getMaximumPoolSize() + " account change writers are busy, retry later");
+    }
+    long cursor = fromSequence != null ? fromSequence : changeLog.getLastSequence() + 1;
+    Subscriber subscriber = new Subscriber(new SseEmitter(emitterTimeoutMs), Math.max(1, cursor));
+    subscriber.start();
+    return subscriber.emitter;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdownNow();
+    writers.shutdownNow();
+  }
+
+  private static ThreadFactory daemonThreads(String prefix) {
+    AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * A single SSE connection and its position in the change stream.
+   */
+  private final class Subscriber {
+
+    private final SseEmitter emitter;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * Set when the subscriber was dropped, so the emitter is completed once the write returns.
+     */
+    private volatile boolean dropped;
+
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    /**
+     * Only advanced by the write in progress, read by the dispatcher.
+     */
+    private volatile long cursor;
+
+    /**
+     * Start time of the write in progress, 0 when idle.
+     */
+    private volatile long writeStartedAt;
+
+    private volatile long lastWriteAt = System.currentTimeMillis();
+
+    private volatile ScheduledFuture<?> task;
+
+    private Subscriber(SseEmitter emitter, long cursor) {
+      this.emitter = emitter;
+      this.cursor = cursor;
+    }
+
+    private void start() {
+      emitter.onCompletion(this::close);
+      emitter.onTimeout(this::close);
+      emitter.onError(error -> close());
+      task = dispatcher.scheduleWithFixedDelay(this::poll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a write if there is something to send, or drops the subscriber if its write is stuck.
+     * Never blocks.
+     */
+    private void poll() {
+      if (closed.get()) {
+        // The subscriber may have been closed before its task was registered
+        ScheduledFuture<?> current = task;
+        if (current != null) {
+          current.cancel(false);
+        }
+        return;
+      }
+      long now = System.currentTimeMillis();
+      long startedAt = writeStartedAt;
+      if (startedAt != 0) {
+        if (now - startedAt > sendTimeoutMs) {
+          log.info("Dropping account change subscriber at sequence {}: write blocked for {} ms",
+                  cursor, now - startedAt);
+          drop();
+        }
+        return;
+      }
+      boolean pending = cursor <= changeLog.getLastSequence();
+      if (pending || now - lastWriteAt >= heartbeatIntervalMs) {
+        writeStartedAt = now;
+        try {
+          writers.execute(this::write);
+        } catch (RejectedExecutionException e) {
+          writeStartedAt = 0;
+          if (writers.isShutdown()) {
+            close();
+          }
+          // Otherwise every writer is busy: retried on the next poll
+        }
+      }
+    }
+
+    private void write() {
+      try {
+        long oldest = changeLog.getOldestSequence();
+        if (cursor < oldest) {
+          sendGap(oldest);
+        }
+        List<AccountChangeEvent> events = changeLog.read(cursor, batchSize);
+        if (events.isEmpty()) {
+          emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+        for (AccountChangeEvent event : events) {
+          if (closed.get()) {
+            break;
+          }
+          emitter.send(SseEmitter.event()
+                  .id(String.valueOf(event.getSequence()))
+                  .name(CHANGE_EVENT)
+                  .data(event));
+          cursor = event.getSequence() + 1;
+        }
+        lastWriteAt = System.currentTimeMillis();
+      } catch (IOException | IllegalStateException e) {
+        // The container completes the emitter itself once the connection is gone
+        log.info("Closing account change subscriber at sequence {}: {}", cursor, e.getMessage());
+        close();
+      } finally {
+        writeStartedAt = 0;
+        if (dropped) {
+          completeDropped();
+        }
+      }
+    }
+
+    private void sendGap(long resumeAt) throws IOException {
+      log.info("Account change subscriber lapped, skipping sequences {} to {}", cursor, resumeAt - 1);
+      Map<String, Long> gap = new LinkedHashMap<>();
+      gap.put("missedFrom", cursor);
+      gap.put("resumeAt", resumeAt);
+      emitter.send(SseEmitter.event().name(GAP_EVENT).data(Collections.unmodifiableMap(gap)));
+      cursor = resumeAt;
+    }
+
+    /**
+     * Closes a subscriber whose connection is stuck. The emitter is not touched here: the blocked
+     * writer holds its monitor, so the writer completes it once its write returns.
+     */
+    private void drop() {
+      dropped = true;
+      close();
+      if (writeStartedAt == 0) {
+        // The write finished meanwhile and may have missed the flag; the emitter is free
+        completeDropped();
+      }
+    }
+
+    private void completeDropped() {
+      if (completed.compareAndSet(false, true)) {
+        emitter.completeWithError(new IOException("Write timed out after " + sendTimeoutMs + " ms"));
+      }
+    }
+
+    private void close() {
+      if (closed.compareAndSet(false, true) && task != null) {
+        task.cancel(false);
+      }
+    }
+  }
+}
@@ -5,6 +5,7 @@
 package com.dws.challenge.service;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountStatus;
 import com.dws.challenge.dto.AmountTransferDTO;
 import com.dws.challenge.repository.AccountsRepository;
 import lombok.Getter;
@@ -13,6 +14,8 @@ import lombok.val;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @Slf4j
 public class AccountsService {
@@ -60,24 +63,94 @@ public class AccountsService {
     return this.accountsRepository.getAccount(accountId);
   }
 
+  /**
+   * Changes the lifecycle status of an account.
+   *
+   * @param accountId the ID of the account to update
+   * @param status    the new status
+   * @return the updated account, or null if not found
+   */
+  public Account changeAccountStatus(String accountId, AccountStatus status) {
+    return this.accountsRepository.updateStatus(accountId, status);
+  }
+
   /**
    * Transfers an amount of money from one account to another.
    *
    * @param amountTransferDTO the transfer details, including source and destination accounts
+   * @return true if the transfer was executed, false otherwise
    */
-  public void amountTransfer(AmountTransferDTO amountTransferDTO) {
+  public boolean amountTransfer(AmountTransferDTO amountTransferDTO) {
     // Retrieve the transfer amount from the transfer details
     val transferAmount = amountTransferDTO.getTransferAmount();
 
     // Check if the source account has sufficient funds to withdraw the transfer amount
     if (this.accountsRepository.withdrawMoney(amountTransferDTO.getSourceAccountId(), transferAmount)) {
-      // Withdraw the transfer amount from the source account
-      this.accountsRepository.depositMoney(amountTransferDTO.getDestinationAccountId(), transferAmount);
+      // Deposit the transfer amount into the destination account
+      if (!this.accountsRepository.depositMoney(amountTransferDTO.getDestinationAccountId(), transferAmount)) {
+        // The destination is missing, frozen or closed - give the money back to the source account
+        refundSource(amountTransferDTO);
+        return false;
+      }
 
       // Notify about the successful transfer
       notifySuccessTransfer(amountTransferDTO);
+      return true;
+    } else {
+      // The withdrawal was rejected - log the reason
+      logRejectedWithdrawal(amountTransferDTO.getSourceAccountId());
+      return false;
+    }
+  }
+
+  /**
+   * Transfers a batch of amounts, one transfer at a time. A failing transfer does not stop the batch.
+   *
+   * @param amountTransfers the transfers to execute
+   * @return the number of transfers executed
+   */
+  public int amountTransferBatch(List<AmountTransferDTO> amountTransfers) {
+    int executed = 0;
+    for (AmountTransferDTO amountTransferDTO : amountTransfers) {
+      try {
+        if (amountTransfer(amountTransferDTO)) {
+          executed++;
+        }
+      } catch (RuntimeException e) {
+        log.error("Transfer from account {} to account {} failed",
+                amountTransferDTO.getSourceAccountId(), amountTransferDTO.getDestinationAccountId(), e);
+      }
+    }
+    return executed;
+  }
+
+  /**
+   * Returns the withdrawn amount to the source account of a transfer whose deposit was rejected.
+   *
+   * @param amountTransferDTO the transfer details, including source and destination accounts
+   */
+  private void refundSource(AmountTransferDTO amountTransferDTO) {
+    log.info("Destination account {} rejected the deposit - refunding source account {}",
+            amountTransferDTO.getDestinationAccountId(), amountTransferDTO.getSourceAccountId());
+    // A refund bypasses the status check, so a source frozen or closed in the meantime still gets its money back
+    if (!this.accountsRepository.refundMoney(amountTransferDTO.getSourceAccountId(), amountTransferDTO.getTransferAmount())) {
+      log.error("Refund of {} to account {} failed - manual reconciliation required",
+              amountTransferDTO.getTransferAmount(), amountTransferDTO.getSourceAccountId());
+    }
+  }
+
+  /**
+   * Logs why the source account of a transfer rejected the withdrawal.
+   *
+   * @param sourceAccountId the ID of the source account
+   */
+  private void logRejectedWithdrawal(String sourceAccountId) {
+    val sourceAccount = this.accountsRepository.getAccount(sourceAccountId);
+    if (sourceAccount == null) {
+      log.info("Source account {} not found - transaction not processed", sourceAccountId);
+    } else if (sourceAccount.getStatus() != AccountStatus.ACTIVE) {
+      log.info("Source account {} is {} - transaction not processed", sourceAccountId, sourceAccount.getStatus());
     } else {
-      // If the source account does not have sufficient funds, display an error message
       log.info("Insufficient funds - transaction not processed - Possible solutions, 1 - Put in a retry strategy. 2 - Send to Dead letter queue.");
     }
   }
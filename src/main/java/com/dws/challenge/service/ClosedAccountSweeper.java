@@ -0,0 +1,36 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.repository.AccountsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job reclaiming the memory of closed accounts.
+ * <p>
+ * Closed accounts stay readable until the next sweep, then are removed from the repository. Never
+ * lazily initialized, otherwise the schedule would not be registered in the slim profile.
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class ClosedAccountSweeper {
+
+  private final AccountsRepository accountsRepository;
+
+  @Autowired
+  public ClosedAccountSweeper(AccountsRepository accountsRepository) {
+    this.accountsRepository = accountsRepository;
+  }
+
+  @Scheduled(fixedDelayString = "${accounts.sweeper.interval-ms:60000}",
+          initialDelayString = "${accounts.sweeper.interval-ms:60000}")
+  public void sweep() {
+    int removed = this.accountsRepository.removeClosedAccounts();
+    if (removed > 0) {
+      log.info("Reclaimed {} closed accounts", removed);
+    }
+  }
+}
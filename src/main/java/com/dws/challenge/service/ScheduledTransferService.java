@@ -0,0 +1,358 @@
+package com.dws.challenge.service;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.dto.AmountTransferDTO;
+import com.dws.challenge.dto.ScheduledTransferDTO;
+import com.dws.challenge.dto.ScheduledTransferMetricsDTO;
+import com.dws.challenge.repository.ScheduledTransferJournal;
+import com.dws.challenge.scheduling.TimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Executes one-time and recurring transfers at their scheduled time.
+ * <p>
+ * Pending schedules sit in a {@link TimingWheel}, so registering and cancelling stay O(1) with
+ * millions of them. A single ticker thread advances the wheel every tick and fires the due transfers
+ * through {@link AccountsService#amountTransferBatch(List)}, at most {@code batch-size} per tick;
+ * the rest waits in a backlog for the next ticks. Every change is recorded in the
+ * {@link ScheduledTransferJournal} before it takes effect, so schedules survive a restart.
+ * <p>
+ * The removal of a fired one-time transfer, or the next occurrence of a recurring one, is flushed
+ * to the journal before the transfer runs: a crash in between loses that occurrence instead of
+ * repeating it after the restart, so every occurrence executes at most once.
+ * <p>
+ * Missed occurrences of a recurring transfer, e.g. while the service was down, are coalesced into a
+ * single execution. A cancellation racing with the firing of an occurrence may not stop it.
+ */
+@Service
+@Lazy(false)
+@Slf4j
+public class ScheduledTransferService {
+
+  /**
+   * The furthest a transfer can be scheduled from now, in the future or in the past, keeping the
+   * execution times within the epoch milliseconds range and the wheel levels within range.
+   */
+  private static final Duration MAX_HORIZON = Duration.ofDays(365L * 100);
+
+  private final AccountsService accountsService;
+
+  private final ScheduledTransferJournal journal;
+
+  private final long tickMs;
+
+  private final int batchSize;
+
+  private final TimingWheel<ScheduledTransfer> wheel;
+
+  private final Map<String, TimingWheel.Timeout<ScheduledTransfer>> schedules = new ConcurrentHashMap<>();
+
+  /**
+   * Due transfers not fired yet, only accessed by the ticker thread.
+   */
+  private final Deque<TimingWheel.Timeout<ScheduledTransfer>> backlog = new ArrayDeque<>();
+
+  private final ScheduledExecutorService ticker;
+
+  private final AtomicLong ticks = new AtomicLong();
+
+  private final AtomicLong executedTotal = new AtomicLong();
+
+  private final AtomicLong failedTotal = new AtomicLong();
+
+  private final AtomicLong lagTotalMs = new AtomicLong();
+
+  private final AtomicLong lastTickExecuted = new AtomicLong();
+
+  private final AtomicLong lastTickFailed = new AtomicLong();
+
+  private final AtomicLong maxTickExecuted = new AtomicLong();
+
+  private final AtomicLong lastTickMaxLagMs = new AtomicLong();
+
+  private final AtomicLong maxLagMs = new AtomicLong();
+
+  private final AtomicLong dueBacklog = new AtomicLong();
+
+  /**
+   * Constructs an instance of the ScheduledTransferService class.
+   *
+   * @param accountsService the service executing the transfers
+   * @param journal         the local persistence of the schedules
+   * @param tickMs          the resolution of the scheduler
+   * @param wheelSize       the number of buckets per timing wheel level
+   * @param batchSize       the maximum number of transfers fired per tick
+   */
+  @Autowired
+  public ScheduledTransferService(AccountsService accountsService,
+                                  ScheduledTransferJournal journal,
+                                  @Value("${accounts.scheduler.tick-ms:100}") long tickMs,
+                                  @Value("${accounts.scheduler.wheel-size:512}") int wheelSize,
+                                  @Value("${accounts.scheduler.batch-size:1000}") int batchSize) {
+    this.accountsService = accountsService;
+    this.journal = journal;
+    this.tickMs = tickMs;
+    this.batchSize = batchSize;
+    this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "scheduled-transfers");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Restores the journaled schedules and starts the ticker. A journaled schedule that cannot be
+   * registered, e.g. written by an older version without validation, is dropped from the journal.
+   */
+  @PostConstruct
+  public void start() {
+    for (ScheduledTransfer scheduledTransfer : journal.load().values()) {
+      try {
+        register(scheduledTransfer);
+      } catch (RuntimeException e) {
+        log.warn("Dropping journaled scheduled transfer {}: {}", scheduledTransfer.getScheduleId(), e.toString());
+        journal.remove(scheduledTransfer.getScheduleId());
+      }
+    }
+    journal.flush();
+    ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() throws IOException, InterruptedException {
+    ticker.shutdown();
+    ticker.awaitTermination(10, TimeUnit.SECONDS);
+    journal.close();
+  }
+
+  /**
+   * Schedules a one-time or recurring transfer.
+   *
+   * @param scheduledTransferDTO the transfer details, first execution time and optional interval
+   * @return the registered schedule
+   * @throws IllegalArgumentException if the schedule is not valid
+   */
+  public ScheduledTransfer schedule(ScheduledTransferDTO scheduledTransferDTO) {
+    validate(scheduledTransferDTO);
+    ScheduledTransfer scheduledTransfer = ScheduledTransfer.builder()
+            .scheduleId(UUID.randomUUID().toString())
+            .sourceAccountId(scheduledTransferDTO.getSourceAccountId())
+            .destinationAccountId(scheduledTransferDTO.getDestinationAccountId())
+            .transferAmount(scheduledTransferDTO.getTransferAmount())
+            .nextExecutionAt(scheduledTransferDTO.getExecuteAt())
+            .interval(scheduledTransferDTO.getInterval())
+            .build();
+    journal.put(scheduledTransfer);
+    journal.flush();
+    register(scheduledTransfer);
+    return scheduledTransfer;
+  }
+
+  /**
+   * Cancels a schedule.
+   *
+   * @param scheduleId the schedule ID
+   * @return true if the schedule was pending, false if not found
+   */
+  public boolean cancel(String scheduleId) {
+    synchronized (wheel) {
+      TimingWheel.Timeout<ScheduledTransfer> timeout = schedules.remove(scheduleId);
+      if (timeout == null) {
+        return false;
+      }
+      wheel.cancel(timeout);
+    }
+    // Outside the wheel lock: a rescheduling journaled later is ignored by putIfLive
+    journal.remove(scheduleId);
+    journal.flush();
+    return true;
+  }
+
+  /**
+   * Retrieves a pending schedule.
+   *
+   * @param scheduleId the schedule ID
+   * @return the schedule, or null if not found
+   */
+  public ScheduledTransfer getScheduledTransfer(String scheduleId) {
+    TimingWheel.Timeout<ScheduledTransfer> timeout = schedules.get(scheduleId);
+    return timeout != null ? timeout.getTask() : null;
+  }
+
+  /**
+   * @return the firing lag and throughput of the scheduler
+   */
+  public ScheduledTransferMetricsDTO getMetrics() {
+    long executed = executedTotal.get();
+    long failed = failedTotal.get();
+    long fired = executed + failed;
+    return ScheduledTransferMetricsDTO.builder()
+            .pendingSchedules(schedules.size())
+            .dueBacklog(dueBacklog.get())
+            .ticks(ticks.get())
+            .executedTotal(executed)
+            .failedTotal(failed)
+            .lastTickExecuted(lastTickExecuted.get())
+            .lastTickFailed(lastTickFailed.get())
+            .maxTickExecuted(maxTickExecuted.get())
+            .lastTickMaxLagMs(lastTickMaxLagMs.get())
+            .maxLagMs(maxLagMs.get())
+            .averageLagMs(fired == 0 ? 0 : (double) lagTotalMs.get() / fired)
+            .build();
+  }
+
+  /**
+   * Advances the wheel and fires one batch of due transfers.
+   */
+  void tick() {
+    try {
+      long now = System.currentTimeMillis();
+      backlog.addAll(wheel.advance(now));
+
+      List<TimingWheel.Timeout<ScheduledTransfer>> batch = new ArrayList<>(Math.min(batchSize, backlog.size()));
+      while (batch.size() < batchSize && !backlog.isEmpty()) {
+        TimingWheel.Timeout<ScheduledTransfer> timeout = backlog.poll();
+        // Skip schedules cancelled after they became due
+        if (schedules.get(timeout.getTask().getScheduleId()) == timeout) {
+          batch.add(timeout);
+        }
+      }
+      dueBacklog.set(backlog.size());
+
+      // Journal the progress first, so a crash cannot replay a transfer that already ran
+      List<TimingWheel.Timeout<ScheduledTransfer>> firing = new ArrayList<>(batch.size());
+      for (TimingWheel.Timeout<ScheduledTransfer> timeout : batch) {
+        if (reschedule(timeout, now)) {
+          firing.add(timeout);
+        }
+      }
+      if (firing.isEmpty()) {
+        recordTick(0, 0, 0);
+        return;
+      }
+      journal.flush();
+
+      long firingTime = System.currentTimeMillis();
+      int executed = accountsService.amountTransferBatch(firing.stream()
+              .map(timeout -> toAmountTransfer(timeout.getTask()))
+              .collect(Collectors.toList()));
+
+      long tickMaxLagMs = 0;
+      for (TimingWheel.Timeout<ScheduledTransfer> timeout : firing) {
+        long lagMs = Math.max(0, firingTime - timeout.getDeadlineMs());
+        tickMaxLagMs = Math.max(tickMaxLagMs, lagMs);
+        lagTotalMs.addAndGet(lagMs);
+      }
+      // Rejected transfers, e.g. for insufficient funds, count as failed
+      recordTick(executed, firing.size() - executed, tickMaxLagMs);
+    } catch (RuntimeException e) {
+      // An exception would cancel the periodic task
+      log.error("Scheduled transfers tick failed", e);
+    }
+  }
+
+  private void register(ScheduledTransfer scheduledTransfer) {
+    // Holding the wheel lock keeps the tick from expiring the schedule before it is registered
+    synchronized (wheel) {
+      schedules.put(scheduledTransfer.getScheduleId(),
+              wheel.schedule(scheduledTransfer, scheduledTransfer.getNextExecutionAt().toEpochMilli()));
+    }
+  }
+
+  /**
+   * Registers and journals the next occurrence of a due recurring transfer, or forgets a due
+   * one-time transfer. The journal is not flushed.
+   *
+   * @return true if the due occurrence must run, false if the schedule was cancelled meanwhile
+   */
+  private boolean reschedule(TimingWheel.Timeout<ScheduledTransfer> fired, long now) {
+    ScheduledTransfer scheduledTransfer = fired.getTask();
+    String scheduleId = scheduledTransfer.getScheduleId();
+    if (!scheduledTransfer.isRecurring()) {
+      if (!schedules.remove(scheduleId, fired)) {
+        return false;
+      }
+      journal.remove(scheduleId);
+      return true;
+    }
+    long intervalMs = scheduledTransfer.getInterval().toMillis();
+    long nextMs = fired.getDeadlineMs() + intervalMs;
+    if (nextMs <= now) {
+      nextMs += ((now - nextMs) / intervalMs + 1) * intervalMs;
+    }
+    ScheduledTransfer next = scheduledTransfer.toBuilder()
+            .nextExecutionAt(Instant.ofEpochMilli(nextMs))
+            .build();
+    synchronized (wheel) {
+      TimingWheel.Timeout<ScheduledTransfer> timeout = wheel.schedule(next, nextMs);
+      if (!schedules.replace(scheduleId, fired, timeout)) {
+        // Cancelled after it became due
+        wheel.cancel(timeout);
+        return false;
+      }
+    }
+    // False if cancelled since the replace: the cancel journals the removal itself
+    return journal.putIfLive(next);
+  }
+
+  private void recordTick(long executed, long failed, long tickMaxLagMs) {
+    ticks.incrementAndGet();
+    executedTotal.addAndGet(executed);
+    failedTotal.addAndGet(failed);
+    lastTickExecuted.set(executed);
+    lastTickFailed.set(failed);
+    maxTickExecuted.accumulateAndGet(executed, Math::max);
+    lastTickMaxLagMs.set(tickMaxLagMs);
+    maxLagMs.accumulateAndGet(tickMaxLagMs, Math::max);
+  }
+
+  private void validate(ScheduledTransferDTO scheduledTransferDTO) {
+    if (scheduledTransferDTO.getTransferAmount().compareTo(BigDecimal.ZERO) <= 0) {
+      throw new IllegalArgumentException("Transfer amount must be positive.");
+    }
+    if (scheduledTransferDTO.getSourceAccountId().equals(scheduledTransferDTO.getDestinationAccountId())) {
+      throw new IllegalArgumentException("Source and destination accounts must differ.");
+    }
+    Instant now = Instant.now();
+    Instant executeAt = scheduledTransferDTO.getExecuteAt();
+    if (executeAt.isBefore(now.minus(MAX_HORIZON)) || executeAt.isAfter(now.plus(MAX_HORIZON))) {
+      throw new IllegalArgumentException("Execution time must be within " + MAX_HORIZON.toDays() + " days from now.");
+    }
+    Duration interval = scheduledTransferDTO.getInterval();
+    if (interval != null && (interval.toMillis() < tickMs || interval.compareTo(MAX_HORIZON) > 0)) {
+      throw new IllegalArgumentException("Interval must be between " + tickMs + " ms and " + MAX_HORIZON.toDays() + " days.");
+    }
+  }
+
+  private static AmountTransferDTO toAmountTransfer(ScheduledTransfer scheduledTransfer) {
+    return AmountTransferDTO.builder()
+            .sourceAccountId(scheduledTransfer.getSourceAccountId())
+            .destinationAccountId(scheduledTransfer.getDestinationAccountId())
+            .transferAmount(scheduledTransfer.getTransferAmount())
+            .build();
+  }
+}
@@ -0,0 +1,47 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.exception.StreamCapacityExceededException;
+import com.dws.challenge.service.AccountChangeStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/v1/account-changes")
+@Slf4j
+public class AccountChangesController {
+
+  private final AccountChangeStreamService accountChangeStreamService;
+
+  @Autowired
+  public AccountChangesController(AccountChangeStreamService accountChangeStreamService) {
+    this.accountChangeStreamService = accountChangeStreamService;
+  }
+
+  /**
+   * Subscribes to the stream of balance mutations as Server-Sent Events.
+   * <p>
+   * Each event carries its sequence number as the SSE id, so a reconnecting client resumes with the
+   * standard {@code Last-Event-ID} header. {@code fromSequence} takes precedence over the header.
+   *
+   * @param fromSequence the first sequence to deliver (inclusive), optional
+   * @param lastEventId  the last sequence already received by the client, optional
+   * @return the emitter streaming the events, or 503 while the stream is at capacity
+   */
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false) Long fromSequence,
+                                  @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+    Long startSequence = fromSequence != null ? fromSequence : lastEventId != null ? lastEventId + 1 : null;
+    log.info("Opening account change stream from sequence {}", startSequence);
+    try {
+      return ResponseEntity.ok(this.accountChangeStreamService.subscribe(startSequence));
+    } catch (StreamCapacityExceededException scee) {
+      log.warn("Rejecting account change stream: {}", scee.getMessage());
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+  }
+}
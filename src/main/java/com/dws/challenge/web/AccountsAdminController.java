@@ -0,0 +1,54 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.dto.AccountStatusChangeDTO;
+import com.dws.challenge.exception.AccountStatusTransitionException;
+import com.dws.challenge.service.AccountsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/v1/admin/accounts")
+@Slf4j
+public class AccountsAdminController {
+
+  private final AccountsService accountsService;
+
+  @Autowired
+  public AccountsAdminController(AccountsService accountsService) {
+    this.accountsService = accountsService;
+  }
+
+  /**
+   * Freezes, reactivates or closes an account.
+   *
+   * @param accountId           the ID of the account to update
+   * @param accountStatusChange the requested status
+   *                            Payload sample: <br/>
+   * {<br/>
+   *   "status": "FROZEN"<br/>
+   * }<br/>
+   * @return the updated account, 404 if it does not exist, 400 if the transition is not allowed
+   */
+  @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE, path = "/{accountId}/status")
+  public ResponseEntity<Object> changeStatus(@PathVariable String accountId,
+                                             @RequestBody @Valid AccountStatusChangeDTO accountStatusChange) {
+    log.info("Changing status of account {} to {}", accountId, accountStatusChange.getStatus());
+    Account account;
+    try {
+      account = this.accountsService.changeAccountStatus(accountId, accountStatusChange.getStatus());
+    } catch (AccountStatusTransitionException aste) {
+      return new ResponseEntity<>(aste.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+    if (account == null) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+    return new ResponseEntity<>(account, HttpStatus.OK);
+  }
+}
@@ -0,0 +1,82 @@
+package com.dws.challenge.web;
+
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.dto.ScheduledTransferDTO;
+import com.dws.challenge.dto.ScheduledTransferMetricsDTO;
+import com.dws.challenge.service.ScheduledTransferService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/v1/scheduled-transfers")
+@Slf4j
+public class ScheduledTransfersController {
+
+  private final ScheduledTransferService scheduledTransferService;
+
+  @Autowired
+  public ScheduledTransfersController(ScheduledTransferService scheduledTransferService) {
+    this.scheduledTransferService = scheduledTransferService;
+  }
+
+  /**
+   * Schedules a one-time or recurring transfer.
+   *
+   * @param scheduledTransferDTO the transfer details
+   *                             Payload sample: <br/>
+   * {<br/>
+   *   "sourceAccountId": "123456789",<br/>
+   *   "destinationAccountId": "987654321",<br/>
+   *   "transferAmount": 100.50,<br/>
+   *   "executeAt": "2026-11-01T00:00:00Z",<br/>
+   *   "interval": "P1D"<br/>
+   * }<br/>
+   * @return the created schedule, or 400 if it is not valid
+   */
+  @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Object> scheduleTransfer(@RequestBody @Valid ScheduledTransferDTO scheduledTransferDTO) {
+    log.info("Scheduling transfer of {} from account {} to account {} at {} every {}",
+            scheduledTransferDTO.getTransferAmount(),
+            scheduledTransferDTO.getSourceAccountId(),
+            scheduledTransferDTO.getDestinationAccountId(),
+            scheduledTransferDTO.getExecuteAt(),
+            scheduledTransferDTO.getInterval());
+    try {
+      return new ResponseEntity<>(this.scheduledTransferService.schedule(scheduledTransferDTO), HttpStatus.CREATED);
+    } catch (IllegalArgumentException iae) {
+      return new ResponseEntity<>(iae.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+  }
+
+  @GetMapping(path = "/{scheduleId}")
+  public ResponseEntity<ScheduledTransfer> getScheduledTransfer(@PathVariable String scheduleId) {
+    ScheduledTransfer scheduledTransfer = this.scheduledTransferService.getScheduledTransfer(scheduleId);
+    if (scheduledTransfer == null) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+    return new ResponseEntity<>(scheduledTransfer, HttpStatus.OK);
+  }
+
+  @DeleteMapping(path = "/{scheduleId}")
+  public ResponseEntity<Object> cancelScheduledTransfer(@PathVariable String scheduleId) {
+    log.info("Cancelling scheduled transfer {}", scheduleId);
+    if (!this.scheduledTransferService.cancel(scheduleId)) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+
+  /**
+   * @return the firing lag and per-tick throughput of the scheduler
+   */
+  @GetMapping(path = "/metrics")
+  public ScheduledTransferMetricsDTO getMetrics() {
+    return this.scheduledTransferService.getMetrics();
+  }
+}
@@ -0,0 +1,58 @@
+package com.dws.challenge;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountChangeEvent;
+import com.dws.challenge.domain.AccountStatus;
+import com.dws.challenge.repository.AccountChangeLog;
+import com.dws.challenge.repository.AccountIdBloomFilter;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountChangeLogTest {
+
+    @Test
+    void mutationsAreSequencedInOrder() {
+        AccountChangeLog changeLog = new AccountChangeLog(16);
+        AccountsRepositoryInMemory repository = new AccountsRepositoryInMemory(changeLog, new AccountIdBloomFilter(100, 0.01));
+
+        repository.createAccount(new Account("Id-1", new BigDecimal("100.00")));
+        repository.withdrawMoney("Id-1", new BigDecimal("30.00"));
+        repository.depositMoney("Id-1", new BigDecimal("5.00"));
+        repository.withdrawMoney("Id-1", new BigDecimal("500.00"));
+
+        List<AccountChangeEvent> events = changeLog.read(1, 10);
+        assertThat(events).extracting(AccountChangeEvent::getSequence).containsExactly(1L, 2L, 3L);
+        assertThat(events).extracting(AccountChangeEvent::getType).containsExactly(
+                AccountChangeEvent.Type.CREATED, AccountChangeEvent.Type.WITHDRAWAL, AccountChangeEvent.Type.DEPOSIT);
+        assertThat(events.get(2).getBalance()).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void readResumesFromSequence() {
+        AccountChangeLog changeLog = new AccountChangeLog(16);
+        for (int i = 0; i < 5; i++) {
+            changeLog.append(AccountChangeEvent.Type.DEPOSIT, "Id-1", BigDecimal.ONE, BigDecimal.valueOf(i), AccountStatus.ACTIVE);
+        }
+
+        assertThat(changeLog.read(4, 10)).extracting(AccountChangeEvent::getSequence).containsExactly(4L, 5L);
+        assertThat(changeLog.read(6, 10)).isEmpty();
+        assertThat(changeLog.read(1, 2)).hasSize(2);
+    }
+
+    @Test
+    void overwrittenEventsAreNotReadable() {
+        AccountChangeLog changeLog = new AccountChangeLog(4);
+        for (int i = 0; i < 10; i++) {
+            changeLog.append(AccountChangeEvent.Type.DEPOSIT, "Id-1", BigDecimal.ONE, BigDecimal.valueOf(i), AccountStatus.ACTIVE);
+        }
+
+        assertThat(changeLog.getOldestSequence()).isEqualTo(7L);
+        assertThat(changeLog.read(2, 10)).isEmpty();
+        assertThat(changeLog.read(7, 10)).extracting(AccountChangeEvent::getSequence).containsExactly(7L, 8L, 9L, 10L);
+    }
+}
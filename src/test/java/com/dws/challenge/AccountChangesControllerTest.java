@@ -0,0 +1,128 @@
+package com.dws.challenge;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountChangeEvent;
+import com.dws.challenge.domain.AccountStatus;
+import com.dws.challenge.repository.AccountChangeLog;
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.NotificationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+@WebAppConfiguration
+class AccountChangesControllerTest {
+
+    private MockMvc mockMvc;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @Autowired
+    private AccountsService accountsService;
+
+    @Autowired
+    private AccountChangeLog changeLog;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @BeforeEach
+    void prepareMockMvc() {
+        this.mockMvc = webAppContextSetup(this.webApplicationContext).build();
+    }
+
+    @Test
+    void streamResumesFromSequence() throws Exception {
+        long first = createAccounts("Test-fromSequence", 2);
+
+        String content = stream(get("/v1/account-changes").param("fromSequence", String.valueOf(first + 1)),
+                "id:" + (first + 1) + "\n");
+
+        assertThat(content).doesNotContain("id:" + first + "\n");
+        assertThat(content).contains("event:account-change");
+    }
+
+    @Test
+    void streamResumesAfterLastEventId() throws Exception {
+        long first = createAccounts("Test-lastEventId", 2);
+
+        String content = stream(get("/v1/account-changes").header("Last-Event-ID", String.valueOf(first)),
+                "id:" + (first + 1) + "\n");
+
+        assertThat(content).doesNotContain("id:" + first + "\n");
+    }
+
+    @Test
+    void fromSequenceTakesPrecedenceOverLastEventId() throws Exception {
+        long first = createAccounts("Test-precedence", 3);
+
+        String content = stream(get("/v1/account-changes")
+                        .param("fromSequence", String.valueOf(first))
+                        .header("Last-Event-ID", String.valueOf(first + 1)),
+                "id:" + (first + 2) + "\n");
+
+        assertThat(content).contains("id:" + first + "\n");
+    }
+
+    @Test
+    void lappedSubscriberReceivesGap() throws Exception {
+        long first = createAccounts("Test-gap", 1);
+        // Overwrite the whole ring buffer so the first event is gone
+        for (int i = 0; i < 5_000; i++) {
+            changeLog.append(AccountChangeEvent.Type.DEPOSIT, "Test-gap-filler", BigDecimal.ONE, BigDecimal.ONE,
+                    AccountStatus.ACTIVE);
+        }
+
+        String content = stream(get("/v1/account-changes").param("fromSequence", String.valueOf(first)),
+                "event:gap");
+
+        assertThat(content).contains("\"missedFrom\":" + first);
+        assertThat(content).doesNotContain("id:" + first + "\n");
+    }
+
+    /**
+     * Creates accounts and returns the sequence of the first creation event.
+     */
+    private long createAccounts(String prefix, int count) {
+        long first = changeLog.getLastSequence() + 1;
+        for (int i = 0; i < count; i++) {
+            this.accountsService.createAccount(new Account(prefix + "-" + i + "-" + System.nanoTime(),
+                    new BigDecimal("10.00")));
+        }
+        return first;
+    }
+
+    /**
+     * Opens the stream and waits until the expected text was written to the response.
+     */
+    private String stream(MockHttpServletRequestBuilder requestBuilder, String expected) throws Exception {
+        MvcResult result = this.mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
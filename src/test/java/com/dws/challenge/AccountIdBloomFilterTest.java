@@ -0,0 +1,59 @@
+package com.dws.challenge;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.repository.AccountChangeLog;
+import com.dws.challenge.repository.AccountIdBloomFilter;
+import com.dws.challenge.repository.AccountsRepositoryInMemory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountIdBloomFilterTest {
+
+    @Test
+    void addedIdsAreAlwaysFound() {
+        AccountIdBloomFilter filter = new AccountIdBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).parallel().forEach(i -> filter.add("Id-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("Id-" + i))).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        AccountIdBloomFilter filter = new AccountIdBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("Id-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("Unknown-" + i)).count();
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void survivesWriteAndRead() throws Exception {
+        AccountIdBloomFilter filter = new AccountIdBloomFilter(1_000, 0.01);
+        IntStream.range(0, 1_000).forEach(i -> filter.add("Id-" + i));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        filter.writeTo(out);
+        AccountIdBloomFilter restored = AccountIdBloomFilter.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(IntStream.range(0, 1_000).allMatch(i -> restored.mightContain("Id-" + i))).isTrue();
+        assertThat(restored.mightContain("Unknown")).isEqualTo(filter.mightContain("Unknown"));
+    }
+
+    @Test
+    void unknownIdsAreRejectedByRepository() {
+        AccountsRepositoryInMemory repository =
+                new AccountsRepositoryInMemory(new AccountChangeLog(16), new AccountIdBloomFilter(100, 0.01));
+        repository.createAccount(new Account("Id-1", new BigDecimal("100.00")));
+
+        assertThat(repository.getAccount("Id-1")).isNotNull();
+        assertThat(repository.getAccount("Id-2")).isNull();
+        assertThat(repository.withdrawMoney("Id-2", BigDecimal.ONE)).isFalse();
+        assertThat(repository.depositMoney("Id-2", BigDecimal.ONE)).isFalse();
+    }
+}
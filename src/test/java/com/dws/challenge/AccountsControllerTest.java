@@ -1,6 +1,7 @@
 package com.dws.challenge;
 
 import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.AccountStatus;
 import com.dws.challenge.dto.AmountTransferDTO;
 import com.dws.challenge.service.AccountsService;
 import com.dws.challenge.service.NotificationService;
@@ -27,6 +28,7 @@ import java.util.Random;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
@@ -112,7 +114,7 @@ class AccountsControllerTest {
         this.mockMvc.perform(get("/v1/accounts/" + uniqueAccountId))
                 .andExpect(status().isOk())
                 .andExpect(
-                        content().string("{\"accountId\":\"" + uniqueAccountId + "\",\"balance\":123.45}"));
+                        content().string("{\"accountId\":\"" + uniqueAccountId + "\",\"balance\":123.45,\"status\":\"ACTIVE\"}"));
     }
 
     @Test
@@ -248,6 +250,93 @@ class AccountsControllerTest {
         assertThat(acLuckyGuy.getBalance().get()).isEqualByComparingTo("8000.00");
     }
 
+    @Test
+    void frozenAccountRejectsTransfers() throws Exception {
+        //Test setup -
+        String sourceAccountId = setupTestInsertAccount("Test-frozen-ac1", "100.00");
+        String destinationAccountId = setupTestInsertAccount("Test-frozen-ac2", "0.00");
+        this.mockMvc.perform(put("/v1/admin/accounts/" + destinationAccountId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"FROZEN\"}")).andExpect(status().isOk());
+
+        //Service Call
+        this.accountsService.amountTransfer(AmountTransferDTO.builder()
+                .sourceAccountId(sourceAccountId)
+                .destinationAccountId(destinationAccountId)
+                .transferAmount(new BigDecimal("10.00"))
+                .build());
+
+        //Test asserts - the withdrawn amount is refunded to the source
+        assertThat(accountsService.getAccount(sourceAccountId).getBalance().get()).isEqualByComparingTo("100.00");
+        assertThat(accountsService.getAccount(destinationAccountId).getBalance().get()).isEqualByComparingTo("0.00");
+        assertThat(accountsService.getAccount(destinationAccountId).getStatus()).isEqualTo(AccountStatus.FROZEN);
+    }
+
+    @Test
+    void accountWithBalanceCannotBeClosed() throws Exception {
+        String accountId = setupTestInsertAccount("Test-closed-funded", "10.00");
+        this.mockMvc.perform(put("/v1/admin/accounts/" + accountId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"CLOSED\"}")).andExpect(status().isBadRequest());
+
+        assertThat(accountsService.getAccount(accountId).getStatus()).isEqualTo(AccountStatus.ACTIVE);
+        assertThat(accountsService.getAccountsRepository().removeClosedAccounts()).isZero();
+    }
+
+    @Test
+    void closedAccountCannotBeReopenedAndIsSwept() throws Exception {
+        String accountId = setupTestInsertAccount("Test-closed-ac1", "0.00");
+        this.mockMvc.perform(put("/v1/admin/accounts/" + accountId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"CLOSED\"}")).andExpect(status().isOk());
+        this.mockMvc.perform(put("/v1/admin/accounts/" + accountId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"ACTIVE\"}")).andExpect(status().isBadRequest());
+
+        assertThat(accountsService.getAccountsRepository().depositMoney(accountId, new BigDecimal("1.00"))).isFalse();
+        assertThat(accountsService.getAccountsRepository().removeClosedAccounts()).isEqualTo(1);
+        assertThat(accountsService.getAccount(accountId)).isNull();
+
+        // Closing is final: the ID cannot be created again once the account was reclaimed
+        this.mockMvc.perform(post("/v1/accounts").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"accountId\":\"" + accountId + "\",\"balance\":0}")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void drainedAccountCanBeClosed() throws Exception {
+        String accountId = setupTestInsertAccount("Test-drained-ac1", "25.00");
+        String destinationAccountId = setupTestInsertAccount("Test-drained-ac2", "0.00");
+
+        assertThat(this.accountsService.amountTransfer(AmountTransferDTO.builder()
+                .sourceAccountId(accountId)
+                .destinationAccountId(destinationAccountId)
+                .transferAmount(new BigDecimal("25.00"))
+                .build())).isTrue();
+        this.mockMvc.perform(put("/v1/admin/accounts/" + accountId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"CLOSED\"}")).andExpect(status().isOk());
+
+        assertThat(accountsService.getAccount(accountId).getStatus()).isEqualTo(AccountStatus.CLOSED);
+        assertThat(accountsService.getAccount(destinationAccountId).getBalance().get()).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void refundIgnoresAccountStatus() throws Exception {
+        String accountId = setupTestInsertAccount("Test-refund-ac1", "5.00");
+        accountsService.changeAccountStatus(accountId, AccountStatus.FROZEN);
+
+        assertThat(accountsService.getAccountsRepository().depositMoney(accountId, new BigDecimal("1.00"))).isFalse();
+        assertThat(accountsService.getAccountsRepository().refundMoney(accountId, new BigDecimal("1.00"))).isTrue();
+        assertThat(accountsService.getAccount(accountId).getBalance().get()).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void changeStatusOfUnknownAccount() throws Exception {
+        this.mockMvc.perform(put("/v1/admin/accounts/Id-unknown/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"FROZEN\"}")).andExpect(status().isNotFound());
+    }
+
     private String setupTestInsertAccount(String accountPrefix, String initialAmount) {
         String sourceAccountId = accountPrefix + System.currentTimeMillis();
         Account sourceAccount = new Account(sourceAccountId, new BigDecimal(initialAmount));
@@ -0,0 +1,32 @@
+package com.dws.challenge;
+
+import com.dws.challenge.repository.ClosedAccountIds;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClosedAccountIdsTest {
+
+    @Test
+    void addedIdsAreFoundAfterGrowing() {
+        ClosedAccountIds closedAccountIds = new ClosedAccountIds();
+        IntStream.range(0, 10_000).parallel().forEach(i -> closedAccountIds.add("Id-" + i));
+        closedAccountIds.add("Id-0");
+
+        assertThat(closedAccountIds.size()).isEqualTo(10_000);
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> closedAccountIds.contains("Id-" + i))).isTrue();
+        assertThat(IntStream.range(0, 10_000).noneMatch(i -> closedAccountIds.contains("Unknown-" + i))).isTrue();
+    }
+
+    @Test
+    void clearForgetsEveryId() {
+        ClosedAccountIds closedAccountIds = new ClosedAccountIds();
+        closedAccountIds.add("Id-1");
+        closedAccountIds.clear();
+
+        assertThat(closedAccountIds.contains("Id-1")).isFalse();
+        assertThat(closedAccountIds.size()).isZero();
+    }
+}
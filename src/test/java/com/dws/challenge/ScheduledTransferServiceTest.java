@@ -0,0 +1,251 @@
+package com.dws.challenge;
+
+import com.dws.challenge.domain.Account;
+import com.dws.challenge.domain.ScheduledTransfer;
+import com.dws.challenge.dto.ScheduledTransferDTO;
+import com.dws.challenge.repository.ScheduledTransferJournal;
+import com.dws.challenge.service.AccountsService;
+import com.dws.challenge.service.NotificationService;
+import com.dws.challenge.service.ScheduledTransferService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class ScheduledTransferServiceTest {
+
+  @Autowired
+  private AccountsService accountsService;
+
+  @Autowired
+  private ScheduledTransferService scheduledTransferService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @MockBean
+  private NotificationService notificationService;
+
+  @Test
+  void dueTransferIsFired() throws Exception {
+    String sourceId = "Sched-src-" + System.nanoTime();
+    String destinationId = "Sched-dst-" + System.nanoTime();
+    this.accountsService.createAccount(new Account(sourceId, new BigDecimal("100.00")));
+    this.accountsService.createAccount(new Account(destinationId, new BigDecimal("0.00")));
+
+    ScheduledTransfer scheduledTransfer = this.scheduledTransferService.schedule(ScheduledTransferDTO.builder()
+            .sourceAccountId(sourceId)
+            .destinationAccountId(destinationId)
+            .transferAmount(new BigDecimal("25.00"))
+            .executeAt(Instant.now())
+            .build());
+
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (this.scheduledTransferService.getScheduledTransfer(scheduledTransfer.getScheduleId()) != null
+            && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertThat(this.accountsService.getAccount(sourceId).getBalance().get()).isEqualByComparingTo("75.00");
+    assertThat(this.accountsService.getAccount(destinationId).getBalance().get()).isEqualByComparingTo("25.00");
+    assertThat(this.scheduledTransferService.getMetrics().getExecutedTotal()).isPositive();
+  }
+
+  @Test
+  void rejectedTransferIsCountedAsFailed() throws Exception {
+    long failedBefore = this.scheduledTransferService.getMetrics().getFailedTotal();
+    ScheduledTransfer scheduledTransfer = this.scheduledTransferService.schedule(ScheduledTransferDTO.builder()
+            .sourceAccountId("Sched-missing-src-" + System.nanoTime())
+            .destinationAccountId("Sched-missing-dst-" + System.nanoTime())
+            .transferAmount(BigDecimal.TEN)
+            .executeAt(Instant.now())
+            .build());
+
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (this.scheduledTransferService.getMetrics().getFailedTotal() == failedBefore
+            && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertThat(this.scheduledTransferService.getScheduledTransfer(scheduledTransfer.getScheduleId())).isNull();
+    assertThat(this.scheduledTransferService.getMetrics().getFailedTotal()).isGreaterThan(failedBefore);
+  }
+
+  @Test
+  void cancelledTransferIsForgotten() {
+    ScheduledTransfer scheduledTransfer = this.scheduledTransferService.schedule(ScheduledTransferDTO.builder()
+            .sourceAccountId("Sched-a")
+            .destinationAccountId("Sched-b")
+            .transferAmount(BigDecimal.TEN)
+            .executeAt(Instant.now().plus(Duration.ofDays(1)))
+            .interval(Duration.ofDays(30))
+            .build());
+
+    assertThat(this.scheduledTransferService.cancel(scheduledTransfer.getScheduleId())).isTrue();
+    assertThat(this.scheduledTransferService.cancel(scheduledTransfer.getScheduleId())).isFalse();
+    assertThat(this.scheduledTransferService.getScheduledTransfer(scheduledTransfer.getScheduleId())).isNull();
+  }
+
+  @Test
+  void firedTransfersAreNotReplayedAfterRestart(@TempDir Path directory) throws Exception {
+    String path = directory.resolve("schedules.jsonl").toString();
+    String sourceId = "Sched-restart-src-" + System.nanoTime();
+    String destinationId = "Sched-restart-dst-" + System.nanoTime();
+    this.accountsService.createAccount(new Account(sourceId, new BigDecimal("100.00")));
+    this.accountsService.createAccount(new Account(destinationId, new BigDecimal("0.00")));
+    Instant executeAt = Instant.now();
+
+    ScheduledTransferService service = new ScheduledTransferService(this.accountsService,
+            new ScheduledTransferJournal(objectMapper, path, 10), 10, 64, 100);
+    service.start();
+    ScheduledTransfer oneTime = service.schedule(ScheduledTransferDTO.builder()
+            .sourceAccountId(sourceId)
+            .destinationAccountId(destinationId)
+            .transferAmount(new BigDecimal("25.00"))
+            .executeAt(executeAt)
+            .build());
+    ScheduledTransfer recurring = service.schedule(ScheduledTransferDTO.builder()
+            .sourceAccountId(sourceId)
+            .destinationAccountId(destinationId)
+            .transferAmount(new BigDecimal("10.00"))
+            .executeAt(executeAt)
+            .interval(Duration.ofHours(1))
+            .build());
+    long deadline = System.currentTimeMillis() + 5_000;
+    while ((service.getScheduledTransfer(oneTime.getScheduleId()) != null
+            || service.getScheduledTransfer(recurring.getScheduleId()).getNextExecutionAt().equals(executeAt))
+            && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    service.stop();
+
+    // A new instance replays the journal written by the first one
+    ScheduledTransferService restarted = new ScheduledTransferService(this.accountsService,
+            new ScheduledTransferJournal(objectMapper, path, 10), 10, 64, 100);
+    restarted.start();
+    try {
+      Thread.sleep(100);
+      assertThat(restarted.getScheduledTransfer(oneTime.getScheduleId())).isNull();
+      assertThat(restarted.getScheduledTransfer(recurring.getScheduleId()).getNextExecutionAt())
+              .isAfter(executeAt.plus(Duration.ofMinutes(59)));
+      assertThat(this.accountsService.getAccount(sourceId).getBalance().get()).isEqualByComparingTo("65.00");
+      assertThat(this.accountsService.getAccount(destinationId).getBalance().get()).isEqualByComparingTo("35.00");
+    } finally {
+      restarted.stop();
+    }
+  }
+
+  @Test
+  void executionTimeOutOfRangeIsRejected() {
+    ScheduledTransferDTO.ScheduledTransferDTOBuilder scheduledTransfer = ScheduledTransferDTO.builder()
+            .sourceAccountId("Sched-a")
+            .destinationAccountId("Sched-b")
+            .transferAmount(BigDecimal.TEN);
+
+    assertThatThrownBy(() -> this.scheduledTransferService.schedule(scheduledTransfer
+            .executeAt(Instant.parse("-999999999-01-01T00:00:00Z")).build()))
+            .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> this.scheduledTransferService.schedule(scheduledTransfer
+            .executeAt(Instant.MAX).build()))
+            .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void unregistrableJournaledScheduleIsDropped(@TempDir Path directory) throws Exception {
+    String path = directory.resolve("schedules.jsonl").toString();
+    ScheduledTransfer kept = ScheduledTransfer.builder()
+            .scheduleId("kept")
+            .sourceAccountId("a")
+            .destinationAccountId("b")
+            .transferAmount(BigDecimal.ONE)
+            .nextExecutionAt(Instant.now().plus(Duration.ofDays(1)))
+            .build();
+    try (ScheduledTransferJournal journal = new ScheduledTransferJournal(objectMapper, path, 10)) {
+      journal.load();
+      journal.put(kept);
+      journal.put(kept.toBuilder().scheduleId("broken").nextExecutionAt(Instant.MIN).build());
+      journal.flush();
+    }
+
+    ScheduledTransferService service = new ScheduledTransferService(this.accountsService,
+            new ScheduledTransferJournal(objectMapper, path, 10), 10, 64, 100);
+    service.start();
+    service.stop();
+
+    assertThat(service.getScheduledTransfer("kept")).isNotNull();
+    assertThat(service.getScheduledTransfer("broken")).isNull();
+    try (ScheduledTransferJournal journal = new ScheduledTransferJournal(objectMapper, path, 10)) {
+      assertThat(journal.load()).containsOnlyKeys("kept");
+    }
+  }
+
+  @Test
+  void journalRestoresLiveSchedules(@TempDir Path directory) throws Exception {
+    String path = directory.resolve("schedules.jsonl").toString();
+    ScheduledTransfer kept = ScheduledTransfer.builder()
+            .scheduleId("kept")
+            .sourceAccountId("a")
+            .destinationAccountId("b")
+            .transferAmount(BigDecimal.ONE)
+            .nextExecutionAt(Instant.parse("2030-01-01T00:00:00Z"))
+            .interval(Duration.ofDays(1))
+            .build();
+    ScheduledTransfer removed = kept.toBuilder().scheduleId("removed").interval(null).build();
+
+    try (ScheduledTransferJournal journal = new ScheduledTransferJournal(objectMapper, path, 10)) {
+      journal.load();
+      journal.put(kept);
+      journal.put(removed);
+      journal.remove("removed");
+      journal.flush();
+    }
+
+    try (ScheduledTransferJournal journal = new ScheduledTransferJournal(objectMapper, path, 10)) {
+      Map<String, ScheduledTransfer> live = journal.load();
+      assertThat(live).containsOnlyKeys("kept");
+      assertThat(live.get("kept")).isEqualTo(kept);
+    }
+  }
+
+  @Test
+  void compactionKeepsJournaledSchedules(@TempDir Path directory) throws Exception {
+    String path = directory.resolve("schedules.jsonl").toString();
+    ScheduledTransfer template = ScheduledTransfer.builder()
+            .sourceAccountId("a")
+            .destinationAccountId("b")
+            .transferAmount(BigDecimal.ONE)
+            .nextExecutionAt(Instant.parse("2030-01-01T00:00:00Z"))
+            .build();
+
+    try (ScheduledTransferJournal journal = new ScheduledTransferJournal(objectMapper, path, 10)) {
+      journal.load();
+      for (int i = 0; i < 20; i++) {
+        journal.put(template.toBuilder().scheduleId("dead-" + i).build());
+        journal.remove("dead-" + i);
+      }
+      journal.put(template.toBuilder().scheduleId("kept").build());
+      // A rescheduling journaled after the cancel must not revive the schedule
+      assertThat(journal.putIfLive(template.toBuilder().scheduleId("dead-0").build())).isFalse();
+    }
+
+    // Appends past the threshold trigger a background compaction, which close waits for
+    assertThat(Files.readAllLines(directory.resolve("schedules.jsonl"))).hasSizeLessThan(41);
+    try (ScheduledTransferJournal journal = new ScheduledTransferJournal(objectMapper, path, 10)) {
+      assertThat(journal.load()).containsOnlyKeys("kept");
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.dws.challenge;
+
+import com.dws.challenge.scheduling.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void tasksExpireAfterTheirDeadlineWithinOneTick() {
+        TimingWheel<Long> wheel = new TimingWheel<>(100, 8, START);
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            // Spread over the first three levels of the hierarchy
+            long deadline = START + random.nextInt(100 * 8 * 8 * 8);
+            wheel.schedule(deadline, deadline);
+        }
+
+        int expired = 0;
+        for (long now = START; wheel.size() > 0; now += 100) {
+            for (TimingWheel.Timeout<Long> timeout : wheel.advance(now)) {
+                assertThat(timeout.getTask()).isLessThanOrEqualTo(now).isGreaterThan(now - 200);
+                expired++;
+            }
+        }
+        assertThat(expired).isEqualTo(10_000);
+    }
+
+    @Test
+    void overdueTasksExpireOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, START);
+        wheel.schedule("late", START - 5_000);
+
+        assertThat(wheel.advance(START + 100)).extracting(TimingWheel.Timeout::getTask).containsExactly("late");
+    }
+
+    @Test
+    void cancelledTasksNeverExpire() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(100, 8, START);
+        List<TimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            timeouts.add(wheel.schedule(i, START + i * 1_000L));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertThat(wheel.cancel(timeouts.get(i))).isTrue();
+        }
+        assertThat(wheel.cancel(timeouts.get(0))).isFalse();
+
+        List<Integer> expired = wheel.advance(START + 200_000).stream()
+                .map(TimingWheel.Timeout::getTask)
+                .collect(Collectors.toList());
+        assertThat(expired).hasSize(50).allMatch(i -> i % 2 == 1);
+        assertThat(wheel.size()).isZero();
+    }
+}